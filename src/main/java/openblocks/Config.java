@@ -34,6 +34,7 @@ import openblocks.common.recipe.MapResizeRecipe;
 import openblocks.enchantments.EnchantmentExplosive;
 import openblocks.enchantments.EnchantmentFlimFlam;
 import openblocks.enchantments.EnchantmentLastStand;
+import openblocks.enchantments.EquipmentSummary;
 import openblocks.enchantments.ExplosiveEnchantmentsHandler;
 import openblocks.enchantments.FlimFlamEnchantmentsHandler;
 import openblocks.enchantments.LastStandEnchantmentsHandler;
@@ -92,7 +93,7 @@ public class Config {
 
 	@OnLineModifiable
 	@ConfigProperty(category = "trophy", name = "trophyDropChanceFormula", comment = "Formula for calculating trophy drop chance. Trophy drops when result is positive.")
-	public static String trophyDropChanceFormula = "let([bias=rand()/4, selection=rand()], (looting + bias) * chance - selection)";
+	public static String trophyDropChanceFormula = TrophyHandler.DEFAULT_DROP_CHANCE_FORMULA;
 
 	@OnLineModifiable
 	@ConfigProperty(category = "dropblock", name = "irregularBlocksArePassable", comment = "The elevator will try to pass through blocks that have custom collision boxes")
@@ -133,6 +134,9 @@ public class Config {
 	@ConfigProperty(category = "glasses", name = "useTexture", comment = "Use texture for obscuring world")
 	public static boolean sonicGlassesUseTexture = true;
 
+	@ConfigProperty(category = "glasses", name = "maxEvents", comment = "Maximum number of sound events displayed at once (quietest are dropped first)")
+	public static int sonicGlassesMaxEvents = 256;
+
 	@OnLineModifiable
 	@ConfigProperty(category = "imaginary", name = "fadingSpeed", comment = "Speed of imaginary blocks fading/appearing")
 	public static float imaginaryFadingSpeed = 0.0075f;
@@ -235,6 +239,10 @@ public class Config {
 	@ConfigProperty(category = "graves", name = "maximalPosY", comment = "Maximal height where grave should be spawned (default value selected to prevent spawning in bedrock)")
 	public static int maxGraveY = 255 - 6;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "graves", name = "searchTimeBudget", comment = "Maximal time (in microseconds) spent every tick on searching for grave locations. Unfinished searches will be resumed in next tick")
+	public static int graveSearchTimeBudget = 500;
+
 	@ConfigProperty(category = "features", name = "explosiveEnchantment", comment = "Is 'Explosive' enchantment enabled")
 	public static boolean explosiveEnchantmentEnabled = true;
 
@@ -322,6 +330,14 @@ public class Config {
 	@ConfigProperty(category = "features", name = "xpToLiquidRatio", comment = "Storage in mB needed to store single XP point")
 	public static int xpToLiquidRatio = 20;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "machines", name = "idleCheckPeriod", comment = "Ticks between checks done by idle machines (XP bottler, auto anvil, auto enchantment table). Idle machines are also woken by inventory, tank or neighbour changes")
+	public static int machineIdleCheckPeriod = 20;
+
+	@OnLineModifiable
+	@ConfigProperty(category = "xpdrain", name = "drainRate", comment = "Maximal amount of XP drained from every player standing on XP drain per tick (0 - limited only by capacity of tank below)")
+	public static int xpDrainRate = 0;
+
 	@OnLineModifiable
 	@ConfigProperty(category = "guide", name = "redstoneSensitivity", comment = "How builder guide should react to redstone. 0 - not sensitive, 1 - powered == on, -1 - inverted")
 	public static int guideRedstone = 1;
@@ -691,6 +707,7 @@ public class Config {
 		}
 
 		if (explosiveEnchantmentEnabled) {
+			EquipmentSummary.registerCapability();
 			MinecraftForge.EVENT_BUS.register(new ExplosiveEnchantmentsHandler());
 			GameRegistry.register(new EnchantmentExplosive().setRegistryName(OpenBlocks.location("explosive")));
 		}
@@ -702,6 +719,7 @@ public class Config {
 
 		if (flimFlamEnchantmentEnabled) {
 			FlimFlamEnchantmentsHandler.registerCapability();
+			EquipmentSummary.registerCapability();
 			MinecraftForge.EVENT_BUS.register(new FlimFlamEnchantmentsHandler());
 			final Enchantment flimFlam = GameRegistry.register(new EnchantmentFlimFlam().setRegistryName(OpenBlocks.location("flim_flam")));
 
@@ -3,6 +3,8 @@ package openblocks;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraftforge.fluids.FluidStack;
+import openblocks.common.tileentity.TileEntityImaginary;
+import openblocks.common.tileentity.TileEntitySky;
 import openmods.api.IProxy;
 
 public interface IOpenBlocksProxy extends IProxy {
@@ -10,4 +12,12 @@ public interface IOpenBlocksProxy extends IProxy {
 
 	public void spawnLiquidSpray(World worldObj, FluidStack fluid, double x, double y, double z, float scale, float gravity, Vec3d velocity);
 
+	public void updateImaginaryBlock(TileEntityImaginary te);
+
+	public void removeImaginaryBlock(TileEntityImaginary te);
+
+	public void updateSkyBlock(TileEntitySky te);
+
+	public void removeSkyBlock(TileEntitySky te);
+
 }
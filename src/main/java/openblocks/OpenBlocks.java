@@ -41,14 +41,20 @@ import net.minecraftforge.fml.common.registry.IForgeRegistry;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.oredict.OreDictionary;
+import openblocks.common.BlockBreakQueue;
+import openblocks.common.BlockChangeTracker;
+import openblocks.common.BonemealQueue;
 import openblocks.common.CanvasReplaceBlacklist;
 import openblocks.common.CommandInventory;
+import openblocks.common.CommandMachines;
+import openblocks.common.CommandProfile;
 import openblocks.common.DonationUrlManager;
 import openblocks.common.ElevatorActionHandler;
 import openblocks.common.ElevatorBlockRules;
 import openblocks.common.EntityEventHandler;
 import openblocks.common.GameRuleManager;
 import openblocks.common.GuideActionHandler;
+import openblocks.common.ImaginationProfile;
 import openblocks.common.LootHandler;
 import openblocks.common.LuggageDropHandler;
 import openblocks.common.MagnetWhitelists;
@@ -58,6 +64,8 @@ import openblocks.common.PlayerDeathHandler;
 import openblocks.common.PlayerInventoryStore;
 import openblocks.common.RadioVillagerTrades;
 import openblocks.common.ServerTickHandler;
+import openblocks.common.TargetProjectileTracker;
+import openblocks.common.VillageIndex;
 import openblocks.common.block.BlockAutoAnvil;
 import openblocks.common.block.BlockAutoEnchantmentTable;
 import openblocks.common.block.BlockBearTrap;
@@ -781,11 +789,29 @@ public class OpenBlocks {
 			PedometerHandler.registerCapability();
 		}
 
+		if (Blocks.imaginary != null) {
+			ImaginationProfile.registerCapability();
+		}
+
 		if (Items.sleepingBag != null)
 			MinecraftForge.EVENT_BUS.register(new ItemSleepingBag.IsSleepingHandler());
 
+		if (Blocks.villageHighlighter != null) {
+			MinecraftForge.EVENT_BUS.register(VillageIndex.instance);
+		}
+
 		MinecraftForge.EVENT_BUS.register(CanvasReplaceBlacklist.instance);
 
+		if (Blocks.goldenEgg != null || Blocks.sprinkler != null) {
+			MinecraftForge.EVENT_BUS.register(BlockChangeTracker.instance);
+		}
+
+		MinecraftForge.EVENT_BUS.register(BlockBreakQueue.instance);
+
+		MinecraftForge.EVENT_BUS.register(BonemealQueue.instance);
+
+		MinecraftForge.EVENT_BUS.register(TargetProjectileTracker.instance);
+
 		MinecraftForge.EVENT_BUS.register(PlayerInventoryStore.instance);
 
 		MinecraftForge.EVENT_BUS.register(new EntityEventHandler());
@@ -859,6 +885,8 @@ public class OpenBlocks {
 		evt.registerServerCommand(new CommandFlimFlam());
 		evt.registerServerCommand(new CommandLuck());
 		evt.registerServerCommand(new CommandInventory());
+		evt.registerServerCommand(new CommandMachines());
+		evt.registerServerCommand(new CommandProfile());
 	}
 
 	public static String getModId() {
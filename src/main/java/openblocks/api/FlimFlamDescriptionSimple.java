@@ -40,6 +40,14 @@ public class FlimFlamDescriptionSimple implements IFlimFlamDescription {
 		return this;
 	}
 
+	public int getLowerLuck() {
+		return lowerLuck;
+	}
+
+	public int getUpperLuck() {
+		return upperLuck;
+	}
+
 	@Override
 	public String name() {
 		return name;
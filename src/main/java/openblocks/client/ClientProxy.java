@@ -36,6 +36,8 @@ import openblocks.client.bindings.KeyInputHandler;
 import openblocks.client.fx.FXLiquidSpray;
 import openblocks.client.model.ModelCraneBackpack;
 import openblocks.client.model.ModelPiggy;
+import openblocks.client.renderer.ImaginaryBlockBatcher;
+import openblocks.client.renderer.SkyBlockBatcher;
 import openblocks.client.renderer.SkyBlockRenderer;
 import openblocks.client.renderer.TextureUploader;
 import openblocks.client.renderer.block.PathModel;
@@ -226,6 +228,7 @@ public class ClientProxy implements IOpenBlocksProxy {
 		if (OpenBlocks.Blocks.sky != null) {
 			ModelUtils.registerMetaInsensitiveModel(OpenBlocks.Blocks.sky);
 			SkyBlockRenderer.INSTANCE.setup();
+			MinecraftForge.EVENT_BUS.register(SkyBlockBatcher.instance);
 		}
 
 		if (OpenBlocks.Items.heightMap != null) {
@@ -332,7 +335,7 @@ public class ClientProxy implements IOpenBlocksProxy {
 
 		if (OpenBlocks.Blocks.imaginary != null) {
 			itemColors.registerItemColorHandler(new ItemImaginary.CrayonColorHandler(), OpenBlocks.Blocks.imaginary);
-			MinecraftForge.EVENT_BUS.register(new TileEntityImaginaryRenderer.CacheFlushListener());
+			MinecraftForge.EVENT_BUS.register(ImaginaryBlockBatcher.instance);
 		}
 
 		if (OpenBlocks.Items.devNull != null) {
@@ -434,4 +437,24 @@ public class ClientProxy implements IOpenBlocksProxy {
 	public void spawnLiquidSpray(World worldObj, FluidStack fluid, double x, double y, double z, float scale, float gravity, Vec3d velocity) {
 		spawnParticle(new FXLiquidSpray(worldObj, fluid, x, y, z, scale, gravity, velocity));
 	}
+
+	@Override
+	public void updateImaginaryBlock(TileEntityImaginary te) {
+		ImaginaryBlockBatcher.instance.update(te);
+	}
+
+	@Override
+	public void removeImaginaryBlock(TileEntityImaginary te) {
+		ImaginaryBlockBatcher.instance.remove(te);
+	}
+
+	@Override
+	public void updateSkyBlock(TileEntitySky te) {
+		SkyBlockBatcher.instance.update(te);
+	}
+
+	@Override
+	public void removeSkyBlock(TileEntitySky te) {
+		SkyBlockBatcher.instance.remove(te);
+	}
 }
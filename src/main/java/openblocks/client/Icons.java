@@ -1,40 +1,77 @@
 package openblocks.client;
 
 import com.google.common.base.Preconditions;
-import net.minecraft.client.renderer.GlStateManager;
-import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.VertexBuffer;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.MathHelper;
-import openmods.colors.RGB;
-import org.lwjgl.opengl.GL11;
 
 public class Icons {
 
-	private static void addVertexWithUV(VertexBuffer wr, double x, double y, double u, double v) {
-		wr.pos(x, y, 0).tex(u, v).endVertex();
+	/**
+	 * Orientation of icons facing viewer: unit vectors pointing to right and up of screen, and towards viewer.
+	 */
+	public static class Billboard {
+		public final double rightX;
+		public final double rightY;
+		public final double rightZ;
+
+		public final double upX;
+		public final double upY;
+		public final double upZ;
+
+		public final double backX;
+		public final double backY;
+		public final double backZ;
+
+		public Billboard(float yaw, float pitch) {
+			final double yawRad = Math.toRadians(yaw);
+			final double pitchRad = Math.toRadians(pitch);
+			final double sinYaw = Math.sin(yawRad);
+			final double cosYaw = Math.cos(yawRad);
+			final double sinPitch = Math.sin(pitchRad);
+			final double cosPitch = Math.cos(pitchRad);
+
+			final double lookX = -sinYaw * cosPitch;
+			final double lookY = -sinPitch;
+			final double lookZ = cosYaw * cosPitch;
+
+			this.rightX = -cosYaw;
+			this.rightY = 0;
+			this.rightZ = -sinYaw;
+
+			// right x look
+			this.upX = rightY * lookZ - rightZ * lookY;
+			this.upY = rightZ * lookX - rightX * lookZ;
+			this.upZ = rightX * lookY - rightY * lookX;
+
+			this.backX = -lookX;
+			this.backY = -lookY;
+			this.backZ = -lookZ;
+		}
 	}
 
 	public interface IDrawableIcon {
-		void draw(double alpha, double scale);
+		/**
+		 * Add quads to buffer in {@link DefaultVertexFormats#POSITION_TEX_COLOR} format
+		 */
+		void addQuads(VertexBuffer wr, Billboard billboard, double x, double y, double z, double alpha, double scale);
 
 		void registerIcons(TextureMap registry);
 	}
 
 	public static class SingleIcon implements IDrawableIcon {
 		protected TextureAtlasSprite icon;
-		public final float r;
-		public final float g;
-		public final float b;
+		public final int r;
+		public final int g;
+		public final int b;
 
 		protected SingleIcon(int color) {
-			RGB rgb = new RGB(color);
-			this.r = rgb.getR();
-			this.g = rgb.getG();
-			this.b = rgb.getB();
+			this.r = (color >> 16) & 0xFF;
+			this.g = (color >> 8) & 0xFF;
+			this.b = (color >> 0) & 0xFF;
 		}
 
 		public SingleIcon(TextureAtlasSprite icon, int color) {
@@ -42,18 +79,23 @@ public class Icons {
 			this.icon = icon;
 		}
 
+		private void addVertex(VertexBuffer wr, Billboard billboard, double x, double y, double z, double right, double up, double u, double v, int a) {
+			wr.pos(x + billboard.rightX * right + billboard.upX * up,
+					y + billboard.rightY * right + billboard.upY * up,
+					z + billboard.rightZ * right + billboard.upZ * up)
+					.tex(u, v)
+					.color(r, g, b, a)
+					.endVertex();
+		}
+
 		@Override
-		public void draw(double alpha, double scale) {
+		public void addQuads(VertexBuffer wr, Billboard billboard, double x, double y, double z, double alpha, double scale) {
 			Preconditions.checkNotNull(icon);
-			GlStateManager.color(r, g, b, MathHelper.floor_double(255 * alpha));
-			final Tessellator tes = Tessellator.getInstance();
-			final VertexBuffer wr = tes.getBuffer();
-			wr.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX);
-			addVertexWithUV(wr, scale, scale, icon.getMinU(), icon.getMinV());
-			addVertexWithUV(wr, scale, -scale, icon.getMinU(), icon.getMaxV());
-			addVertexWithUV(wr, -scale, -scale, icon.getMaxU(), icon.getMaxV());
-			addVertexWithUV(wr, -scale, scale, icon.getMaxU(), icon.getMinV());
-			tes.draw();
+			final int a = MathHelper.clamp_int(MathHelper.floor_double(255 * alpha), 0, 255);
+			addVertex(wr, billboard, x, y, z, -scale, +scale, icon.getMinU(), icon.getMinV(), a);
+			addVertex(wr, billboard, x, y, z, -scale, -scale, icon.getMinU(), icon.getMaxV(), a);
+			addVertex(wr, billboard, x, y, z, +scale, -scale, icon.getMaxU(), icon.getMaxV(), a);
+			addVertex(wr, billboard, x, y, z, +scale, +scale, icon.getMaxU(), icon.getMinV(), a);
 		}
 
 		@Override
@@ -88,10 +130,13 @@ public class Icons {
 		}
 
 		@Override
-		public void draw(double alpha, double scale) {
-			back.draw(alpha, scale * scaleRatio);
-			GL11.glTranslated(0, 0, -distance);
-			front.draw(alpha, scale);
+		public void addQuads(VertexBuffer wr, Billboard billboard, double x, double y, double z, double alpha, double scale) {
+			back.addQuads(wr, billboard, x, y, z, alpha, scale * scaleRatio);
+			front.addQuads(wr, billboard,
+					x + billboard.backX * distance,
+					y + billboard.backY * distance,
+					z + billboard.backZ * distance,
+					alpha, scale);
 		}
 
 		@Override
@@ -0,0 +1,213 @@
+package openblocks.client;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Maps;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * Collection of visible sound events. Events with same sound id and close positions are merged into single entry (refreshing it and making it bigger).
+ * Number of entries is limited, loudest ones are kept. Does not depend on rendering or sound system.
+ *
+ * @param <S>
+ *            handle of sound, used to check if sound is still playing
+ */
+public class SoundEventAggregator<S> {
+
+	public static final double MERGE_RADIUS = 1.0;
+
+	public static final double SIZE_BUMP = 0.05;
+
+	public static final double MAX_SIZE = 2.0;
+
+	public static class Entry<S> {
+		private final Key key;
+
+		public final double x;
+		public final double y;
+		public final double z;
+
+		private S sound;
+
+		private double size;
+
+		private boolean isPlaying = true;
+
+		private int ticks;
+		private int ttl;
+
+		private Entry(Key key, S sound, double x, double y, double z, double size, int ttl) {
+			this.key = key;
+			this.sound = sound;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.size = size;
+			this.ttl = ttl;
+		}
+
+		public ResourceLocation getSoundId() {
+			return key.soundId;
+		}
+
+		public double getSize() {
+			return size;
+		}
+
+		public boolean isAlive() {
+			return ticks <= ttl;
+		}
+
+		public double getAlpha(double partialTick) {
+			return 1 - (ticks + partialTick) / ttl;
+		}
+
+		private void update(Predicate<S> isPlayingCheck) {
+			if (isPlaying) {
+				isPlaying = isPlayingCheck.apply(sound);
+			} else {
+				ticks++;
+			}
+		}
+
+		private void refresh(S sound, double size, int ttl) {
+			this.sound = sound;
+			this.size = Math.min(Math.max(this.size, size) + SIZE_BUMP, Math.max(MAX_SIZE, size));
+			this.ttl = Math.max(this.ttl, ttl);
+			this.isPlaying = true;
+			this.ticks = 0;
+		}
+	}
+
+	private static class Key {
+		private final ResourceLocation soundId;
+		private final int cellX;
+		private final int cellY;
+		private final int cellZ;
+
+		private Key(ResourceLocation soundId, int cellX, int cellY, int cellZ) {
+			this.soundId = soundId;
+			this.cellX = cellX;
+			this.cellY = cellY;
+			this.cellZ = cellZ;
+		}
+
+		public Key(ResourceLocation soundId, double x, double y, double z) {
+			this(soundId, (int)Math.floor(x / MERGE_RADIUS), (int)Math.floor(y / MERGE_RADIUS), (int)Math.floor(z / MERGE_RADIUS));
+		}
+
+		public Key offset(int dx, int dy, int dz) {
+			return new Key(soundId, cellX + dx, cellY + dy, cellZ + dz);
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = soundId.hashCode();
+			result = prime * result + cellX;
+			result = prime * result + cellY;
+			result = prime * result + cellZ;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) return true;
+			if (obj instanceof Key) {
+				final Key other = (Key)obj;
+				return other.cellX == cellX &&
+						other.cellY == cellY &&
+						other.cellZ == cellZ &&
+						other.soundId.equals(soundId);
+			}
+
+			return false;
+		}
+	}
+
+	private int maxEntries;
+
+	// insertion order = render order
+	private final Map<Key, Entry<S>> entries = Maps.newLinkedHashMap();
+
+	public SoundEventAggregator(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	private Entry<S> findQuietest() {
+		Entry<S> result = null;
+		for (Entry<S> entry : entries.values())
+			if (result == null || entry.size < result.size) result = entry;
+
+		return result;
+	}
+
+	private Entry<S> findNeighbour(Key key, double x, double y, double z) {
+		// cells are MERGE_RADIUS wide, so any entry within radius is in one of adjacent cells
+		for (int dx = -1; dx <= 1; dx++)
+			for (int dy = -1; dy <= 1; dy++)
+				for (int dz = -1; dz <= 1; dz++) {
+					if (dx == 0 && dy == 0 && dz == 0) continue;
+					final Entry<S> entry = entries.get(key.offset(dx, dy, dz));
+					if (entry != null) {
+						final double deltaX = entry.x - x;
+						final double deltaY = entry.y - y;
+						final double deltaZ = entry.z - z;
+						if (deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ <= MERGE_RADIUS * MERGE_RADIUS) return entry;
+					}
+				}
+
+		return null;
+	}
+
+	/**
+	 * @return true if event was added or merged, false if it was dropped due to limit
+	 */
+	public boolean add(S sound, ResourceLocation soundId, double x, double y, double z, double size, double ttlSeconds) {
+		final int ttl = (int)Math.floor(20 * ttlSeconds);
+		final Key key = new Key(soundId, x, y, z);
+
+		Entry<S> existing = entries.get(key);
+		if (existing == null) existing = findNeighbour(key, x, y, z);
+		if (existing != null) {
+			existing.refresh(sound, size, ttl);
+			return true;
+		}
+
+		if (entries.size() >= maxEntries) {
+			final Entry<S> quietest = findQuietest();
+			if (quietest == null || quietest.size >= size) return false;
+			entries.remove(quietest.key);
+		}
+
+		entries.put(key, new Entry<S>(key, sound, x, y, z, size, ttl));
+		return true;
+	}
+
+	public void update(Predicate<S> isPlayingCheck) {
+		final Iterator<Entry<S>> it = entries.values().iterator();
+		while (it.hasNext()) {
+			final Entry<S> entry = it.next();
+			entry.update(isPlayingCheck);
+			if (!entry.isAlive()) it.remove();
+		}
+	}
+
+	public Collection<Entry<S>> getEntries() {
+		return entries.values();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+}
@@ -1,19 +1,19 @@
 package openblocks.client;
 
-import com.google.common.collect.Lists;
-import java.util.Iterator;
-import java.util.List;
+import com.google.common.base.Predicate;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.ISound;
 import net.minecraft.client.audio.SoundHandler;
 import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.VertexBuffer;
 import net.minecraft.client.renderer.texture.TextureManager;
 import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
-import net.minecraft.util.math.MathHelper;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.client.event.sound.PlaySoundEvent;
 import net.minecraftforge.common.MinecraftForge;
@@ -21,13 +21,13 @@ import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import openblocks.Config;
 import openblocks.OpenBlocks;
+import openblocks.client.Icons.Billboard;
 import openblocks.client.Icons.IDrawableIcon;
 import openblocks.common.item.ItemSonicGlasses;
 import openmods.config.properties.ConfigurationChange;
 import openmods.renderer.ManualDisplayList;
 import openmods.renderer.ManualDisplayList.Renderer;
 import openmods.utils.TextureUtils;
-import openmods.utils.render.RenderUtils;
 import org.lwjgl.opengl.GL11;
 
 public class SoundEventsManager {
@@ -36,49 +36,14 @@ public class SoundEventsManager {
 
 	public void init() {
 		icons.registerDefaults();
+		events.setMaxEntries(Config.sonicGlassesMaxEvents);
 		MinecraftForge.EVENT_BUS.register(icons);
 	}
 
 	public static final SoundEventsManager instance = new SoundEventsManager();
 	public final SoundIconRegistry icons = new SoundIconRegistry();
 
-	private static class SoundEvent {
-		public final IDrawableIcon icon;
-		public final double size;
-
-		public final ISound sound;
-
-		private boolean isPlaying = true;
-
-		private int ticks;
-		private final int TTL;
-
-		private SoundEvent(ISound sound, IDrawableIcon icon, double size, double TTL) {
-			this.sound = sound;
-			this.icon = icon;
-			this.size = size;
-
-			this.TTL = MathHelper.floor_double(20 * TTL);
-		}
-
-		public void update(SoundHandler handler) {
-			if (isPlaying) {
-				isPlaying = handler.isSoundPlaying(sound);
-			} else {
-				ticks++;
-			}
-		}
-
-		public boolean isAlive() {
-			return ticks <= TTL;
-		}
-
-		public double getAlpha(double partialTick) {
-			return 1 - (ticks + partialTick) / TTL;
-		}
-	}
-
-	private final List<SoundEvent> events = Lists.newLinkedList();
+	private final SoundEventAggregator<ISound> events = new SoundEventAggregator<ISound>(256);
 
 	public static boolean isEntityWearingGlasses(Entity e) {
 		if (e instanceof EntityPlayer) {
@@ -102,10 +67,10 @@ public class SoundEventsManager {
 			if (sound != null) {
 				// NOTE do not remove, otherwise sound.getVolume will throw NPE
 				if (sound.createAccessor(evt.getManager().sndHandler) != null) {
-					final IDrawableIcon icon = icons.getIcon(sound.getSoundLocation());
-
 					synchronized (events) {
-						events.add(new SoundEvent(sound, icon, Math.log(sound.getVolume() + 1), sound.getPitch()));
+						events.add(sound, sound.getSoundLocation(),
+								sound.getXPosF(), sound.getYPosF(), sound.getZPosF(),
+								Math.log(sound.getVolume() + 1), sound.getPitch());
 					}
 				}
 			}
@@ -120,13 +85,12 @@ public class SoundEventsManager {
 	public void tickUpdate() {
 		synchronized (events) {
 			final SoundHandler handler = Minecraft.getMinecraft().getSoundHandler();
-			Iterator<SoundEvent> it = events.iterator();
-
-			while (it.hasNext()) {
-				SoundEvent evt = it.next();
-				evt.update(handler);
-				if (!evt.isAlive()) it.remove();
-			}
+			events.update(new Predicate<ISound>() {
+				@Override
+				public boolean apply(ISound sound) {
+					return handler.isSoundPlaying(sound);
+				}
+			});
 		}
 	}
 
@@ -236,19 +200,25 @@ public class SoundEventsManager {
 		GlStateManager.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
 		GlStateManager.enableTexture2D();
 		TextureUtils.bindTextureToClient(TextureMap.LOCATION_BLOCKS_TEXTURE);
+		GlStateManager.color(1, 1, 1, 1);
+
+		final float yaw = rve.prevRotationYaw + (rve.rotationYaw - rve.prevRotationYaw) * partialTicks;
+		final float pitch = rve.prevRotationPitch + (rve.rotationPitch - rve.prevRotationPitch) * partialTicks;
+		final Billboard billboard = new Billboard(yaw, pitch);
+
+		// all icons are baked on CPU into single buffer
+		final Tessellator tes = Tessellator.getInstance();
+		final VertexBuffer wr = tes.getBuffer();
+		wr.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
 		synchronized (events) {
-			for (SoundEvent snd : events) {
-				final double px = snd.sound.getXPosF() - interpX;
-				final double py = snd.sound.getYPosF() - interpY;
-				final double pz = snd.sound.getZPosF() - interpZ;
-
-				GL11.glPushMatrix();
-				GL11.glTranslated(px, py, pz);
-				RenderUtils.setupBillboard(rve);
-				snd.icon.draw(snd.getAlpha(partialTicks), snd.size);
-				GL11.glPopMatrix();
+			for (SoundEventAggregator.Entry<ISound> snd : events.getEntries()) {
+				final IDrawableIcon icon = icons.getIcon(snd.getSoundId());
+				icon.addQuads(wr, billboard,
+						snd.x - interpX, snd.y - interpY, snd.z - interpZ,
+						snd.getAlpha(partialTicks), snd.getSize());
 			}
 		}
+		tes.draw();
 		GlStateManager.enableLighting();
 		GlStateManager.disableBlend();
 		GlStateManager.enableDepth();
@@ -3,11 +3,13 @@ package openblocks.client;
 import static openblocks.client.Icons.createIcon;
 
 import com.google.common.base.Preconditions;
-import com.google.common.base.Splitter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Maps;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.EntityList.EntityEggInfo;
@@ -17,7 +19,6 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import openblocks.OpenBlocks;
 import openblocks.client.Icons.ComposedIcon;
 import openblocks.client.Icons.IDrawableIcon;
-import openmods.Log;
 
 public class SoundIconRegistry {
 
@@ -32,9 +33,9 @@ public class SoundIconRegistry {
 	private final static ResourceLocation ICON_FRAME = ob("frame");
 
 	public interface ISoundCategory {
-		public IDrawableIcon getIcon(Iterator<String> path);
-
 		public void registerIcons(TextureMap registry);
+
+		public SoundIconTrie.Node compile(Interner<String> names);
 	}
 
 	public static class ConstantIcon implements ISoundCategory {
@@ -50,8 +51,8 @@ public class SoundIconRegistry {
 		}
 
 		@Override
-		public IDrawableIcon getIcon(Iterator<String> path) {
-			return icon;
+		public SoundIconTrie.Node compile(Interner<String> names) {
+			return new SoundIconTrie.ConstantNode(icon);
 		}
 	}
 
@@ -59,16 +60,6 @@ public class SoundIconRegistry {
 		public IDrawableIcon defaultIcon;
 		private final Map<String, ISoundCategory> subCategories = Maps.newHashMap();
 
-		@Override
-		public IDrawableIcon getIcon(Iterator<String> path) {
-			String id = path.next();
-			ISoundCategory result = subCategories.get(id);
-			if (result == null) return defaultIcon;
-
-			IDrawableIcon icon = result.getIcon(path);
-			return (icon != null)? icon : defaultIcon;
-		}
-
 		public <T extends ISoundCategory> T add(String id, T subcategory) {
 			subCategories.put(id, subcategory);
 			return subcategory;
@@ -85,6 +76,15 @@ public class SoundIconRegistry {
 			for (ISoundCategory cat : subCategories.values())
 				cat.registerIcons(registry);
 		}
+
+		@Override
+		public SoundIconTrie.MappedNode compile(Interner<String> names) {
+			final Map<String, SoundIconTrie.Node> children = Maps.newHashMap();
+			for (Map.Entry<String, ISoundCategory> e : subCategories.entrySet())
+				children.put(names.intern(e.getKey()), e.getValue().compile(names));
+
+			return new SoundIconTrie.MappedNode(defaultIcon, children);
+		}
 	}
 
 	private static class TintedIconCategory extends MappedCategory {
@@ -133,17 +133,15 @@ public class SoundIconRegistry {
 			this.child = child;
 		}
 
-		@Override
-		public IDrawableIcon getIcon(Iterator<String> path) {
-			path.next(); // ignore one element
-			return child.getIcon(path);
-		}
-
 		@Override
 		public void registerIcons(TextureMap registry) {
 			child.registerIcons(registry);
 		}
 
+		@Override
+		public SoundIconTrie.Node compile(Interner<String> names) {
+			return new SoundIconTrie.SkipNode(child.compile(names));
+		}
 	}
 
 	private final IDrawableIcon genericIcon = simpleIcon("generic", DEFAULT_COLOR);
@@ -153,7 +151,10 @@ public class SoundIconRegistry {
 
 	private final Map<String, MappedCategory> roots = Maps.newHashMap();
 
-	private Map<ResourceLocation, IDrawableIcon> iconCache = Maps.newConcurrentMap();
+	private static final int ICON_CACHE_SIZE = 1024;
+
+	// replaced as whole, so resolution never sees half-updated categories
+	private volatile LoadingCache<ResourceLocation, IDrawableIcon> iconCache;
 
 	public static final int DEFAULT_COLOR = 0xFFFFFF;
 
@@ -166,34 +167,43 @@ public class SoundIconRegistry {
 
 		for (MappedCategory category : roots.values())
 			category.registerIcons(map);
+
+		rebuild();
 	}
 
-	private IDrawableIcon findIcon(ResourceLocation sound) {
-		try {
-			MappedCategory domainRoot = roots.get(sound.getResourceDomain());
+	/**
+	 * Creates immutable snapshot of currently registered categories. Does not use GL, so can be used for measuring resolution outside game.
+	 */
+	public SoundIconTrie compile() {
+		final Interner<String> names = Interners.newStrongInterner();
 
-			Iterable<String> path = Splitter.on('.').split(sound.getResourcePath());
-			if (domainRoot != null) {
-				IDrawableIcon result = domainRoot.getIcon(path.iterator());
-				if (result != null) return result;
-			}
+		final Map<String, SoundIconTrie.Node> compiledRoots = Maps.newHashMap();
+		for (Map.Entry<String, MappedCategory> e : roots.entrySet())
+			compiledRoots.put(names.intern(e.getKey()), e.getValue().compile(names));
 
-			IDrawableIcon result = defaultRoot.getIcon(path.iterator());
-			return result != null? result : genericIcon;
-		} catch (NoSuchElementException e) {
-			Log.warn("Malformed sound name: %s", sound);
-			return defaultRoot.defaultIcon;
-		}
+		return new SoundIconTrie(compiledRoots, defaultRoot.compile(names), genericIcon);
+	}
+
+	private void rebuild() {
+		final SoundIconTrie trie = compile();
+		iconCache = CacheBuilder.newBuilder()
+				.maximumSize(ICON_CACHE_SIZE)
+				.build(new CacheLoader<ResourceLocation, IDrawableIcon>() {
+					@Override
+					public IDrawableIcon load(ResourceLocation key) {
+						return trie.resolve(key);
+					}
+				});
 	}
 
 	public IDrawableIcon getIcon(ResourceLocation sound) {
-		IDrawableIcon result = iconCache.get(sound);
-		if (result == null) {
-			result = findIcon(sound);
-			iconCache.put(sound, result);
+		LoadingCache<ResourceLocation, IDrawableIcon> cache = iconCache;
+		if (cache == null) {
+			rebuild();
+			cache = iconCache;
 		}
 
-		return result;
+		return cache.getUnchecked(sound);
 	}
 
 	private static IDrawableIcon simpleIcon(String id, int color) {
@@ -521,6 +531,8 @@ public class SoundIconRegistry {
 			}
 
 		}
+
+		rebuild();
 	}
 
 }
@@ -0,0 +1,133 @@
+package openblocks.client;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import net.minecraft.util.ResourceLocation;
+import openblocks.client.Icons.IDrawableIcon;
+import openmods.Log;
+
+/**
+ * Immutable, compiled form of sound icon categories. Path segments (split on '.') are matched level by level.
+ * Safe to use from any thread, does not use GL.
+ */
+public class SoundIconTrie {
+
+	private static class MalformedPathException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+
+	// thrown when path ends before reaching leaf, used only for control flow
+	private static final MalformedPathException MALFORMED_PATH = new MalformedPathException();
+
+	public abstract static class Node {
+		/**
+		 * @return icon for path starting at given segment, or null if node has no icon for it
+		 */
+		protected abstract IDrawableIcon resolve(String[] path, int segment);
+	}
+
+	public static class ConstantNode extends Node {
+		private final IDrawableIcon icon;
+
+		public ConstantNode(IDrawableIcon icon) {
+			this.icon = icon;
+		}
+
+		@Override
+		protected IDrawableIcon resolve(String[] path, int segment) {
+			return icon;
+		}
+	}
+
+	public static class MappedNode extends Node {
+		private final IDrawableIcon defaultIcon;
+
+		private final Map<String, Node> children;
+
+		public MappedNode(IDrawableIcon defaultIcon, Map<String, Node> children) {
+			this.defaultIcon = defaultIcon;
+			this.children = ImmutableMap.copyOf(children);
+		}
+
+		public IDrawableIcon getDefaultIcon() {
+			return defaultIcon;
+		}
+
+		@Override
+		protected IDrawableIcon resolve(String[] path, int segment) {
+			if (segment >= path.length) throw MALFORMED_PATH;
+			final Node child = children.get(path[segment]);
+			if (child == null) return defaultIcon;
+
+			final IDrawableIcon icon = child.resolve(path, segment + 1);
+			return icon != null? icon : defaultIcon;
+		}
+	}
+
+	public static class SkipNode extends Node {
+		private final Node child;
+
+		public SkipNode(Node child) {
+			Preconditions.checkNotNull(child);
+			this.child = child;
+		}
+
+		@Override
+		protected IDrawableIcon resolve(String[] path, int segment) {
+			if (segment >= path.length) throw MALFORMED_PATH;
+			return child.resolve(path, segment + 1);
+		}
+	}
+
+	private final Map<String, Node> domainRoots;
+
+	private final MappedNode defaultRoot;
+
+	private final IDrawableIcon genericIcon;
+
+	public SoundIconTrie(Map<String, Node> domainRoots, MappedNode defaultRoot, IDrawableIcon genericIcon) {
+		this.domainRoots = ImmutableMap.copyOf(domainRoots);
+		this.defaultRoot = defaultRoot;
+		this.genericIcon = genericIcon;
+	}
+
+	// same as Splitter.on('.'), including empty segments
+	private static String[] split(String path) {
+		int count = 1;
+		for (int i = 0; i < path.length(); i++)
+			if (path.charAt(i) == '.') count++;
+
+		final String[] result = new String[count];
+		int start = 0;
+		for (int i = 0; i < count - 1; i++) {
+			final int end = path.indexOf('.', start);
+			result[i] = path.substring(start, end);
+			start = end + 1;
+		}
+		result[count - 1] = path.substring(start);
+		return result;
+	}
+
+	public IDrawableIcon resolve(ResourceLocation sound) {
+		final String[] path = split(sound.getResourcePath());
+		try {
+			final Node domainRoot = domainRoots.get(sound.getResourceDomain());
+			if (domainRoot != null) {
+				final IDrawableIcon result = domainRoot.resolve(path, 0);
+				if (result != null) return result;
+			}
+
+			final IDrawableIcon result = defaultRoot.resolve(path, 0);
+			return result != null? result : genericIcon;
+		} catch (MalformedPathException e) {
+			Log.warn("Malformed sound name: %s", sound);
+			return defaultRoot.getDefaultIcon();
+		}
+	}
+}
@@ -0,0 +1,374 @@
+package openblocks.client.renderer;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.RenderHelper;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.VertexBuffer;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.IBakedModel;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.client.renderer.tileentity.TileEntityRendererDispatcher;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.client.event.ModelBakeEvent;
+import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import openblocks.Config;
+import openblocks.common.ImaginationProfile;
+import openblocks.common.block.BlockImaginary;
+import openblocks.common.tileentity.TileEntityImaginary;
+import openblocks.common.tileentity.TileEntityImaginary.Property;
+import org.lwjgl.opengl.GL11;
+
+/**
+ * Renders imaginary blocks in batches, grouped by chunk section and everything that affects their visibility (and therefore fading).
+ * Geometry of group is rebuilt only when blocks are added, removed or changed. Rendering is triggered by first visible block in translucent TESR pass.
+ */
+public class ImaginaryBlockBatcher {
+
+	public static final ImaginaryBlockBatcher instance = new ImaginaryBlockBatcher();
+
+	// same as default TESR range + section diagonal
+	private static final double MAX_RENDER_DISTANCE_SQ = (64 + 14) * (64 + 14);
+
+	// same threshold as vanilla uses for resorting translucent chunks
+	private static final double RESORT_DISTANCE_SQ = 1.0;
+
+	private static class GroupKey {
+		private final BlockPos origin;
+
+		private final boolean isPencil;
+
+		private final int color;
+
+		private final boolean isInverted;
+
+		public GroupKey(TileEntityImaginary te) {
+			final BlockPos pos = te.getPos();
+			this.origin = new BlockPos(pos.getX() & ~15, pos.getY() & ~15, pos.getZ() & ~15);
+			this.isPencil = te.isPencil();
+			this.color = isPencil? 0 : te.color;
+			this.isInverted = te.isInverted();
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + origin.hashCode();
+			result = prime * result + (isPencil? 1231 : 1237);
+			result = prime * result + color;
+			result = prime * result + (isInverted? 1231 : 1237);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) return true;
+			if (obj instanceof GroupKey) {
+				final GroupKey other = (GroupKey)obj;
+				return other.origin.equals(origin) &&
+						other.isPencil == isPencil &&
+						other.color == color &&
+						other.isInverted == isInverted;
+			}
+
+			return false;
+		}
+	}
+
+	private static class Group {
+		private final GroupKey key;
+
+		private final Set<TileEntityImaginary> members = Sets.newIdentityHashSet();
+
+		private final ImaginaryGeometry.Batch geometry = new ImaginaryGeometry.Batch();
+
+		private boolean isDirty = true;
+
+		private float visibility;
+
+		private final float r;
+		private final float g;
+		private final float b;
+
+		// squared distance from camera to center, for sorting groups in current frame
+		private double distanceSq;
+
+		// 0 = not compiled
+		private int displayList;
+
+		private boolean needsCompile = true;
+
+		// camera position (relative to origin) used for last quad sort
+		private double sortX;
+		private double sortY;
+		private double sortZ;
+
+		public Group(GroupKey key) {
+			this.key = key;
+
+			if (key.isPencil) {
+				r = g = b = 1.0f;
+			} else {
+				final int color = key.color;
+				r = ((color >> 16) & 0xFF) / 255.0f;
+				g = ((color >> 8) & 0xFF) / 255.0f;
+				b = ((color >> 0) & 0xFF) / 255.0f;
+			}
+		}
+
+		public void release() {
+			if (displayList != 0) {
+				GL11.glDeleteLists(displayList, 1);
+				displayList = 0;
+			}
+			needsCompile = true;
+		}
+	}
+
+	private final LoadingCache<IBlockState, ImaginaryGeometry.Template> templateCache = CacheBuilder.newBuilder()
+			.build(new CacheLoader<IBlockState, ImaginaryGeometry.Template>() {
+				@Override
+				public ImaginaryGeometry.Template load(IBlockState state) throws Exception {
+					final IBakedModel model = Minecraft.getMinecraft().getBlockRendererDispatcher().getBlockModelShapes().getModelForState(state);
+
+					final List<BakedQuad> quads = Lists.newArrayList();
+					for (EnumFacing side : EnumFacing.VALUES)
+						quads.addAll(model.getQuads(state, side, 0));
+
+					quads.addAll(model.getQuads(state, null, 0));
+					return ImaginaryGeometry.createTemplate(quads);
+				}
+			});
+
+	private final Map<GroupKey, Group> groups = Maps.newHashMap();
+
+	private final Map<TileEntityImaginary, Group> membership = Maps.newIdentityHashMap();
+
+	private final List<Group> visibleGroups = Lists.newArrayList();
+
+	private boolean renderedThisFrame;
+
+	private static final Comparator<Group> BACK_TO_FRONT = new Comparator<Group>() {
+		@Override
+		public int compare(Group o1, Group o2) {
+			return Double.compare(o2.distanceSq, o1.distanceSq);
+		}
+	};
+
+	public void update(TileEntityImaginary te) {
+		final GroupKey key = new GroupKey(te);
+		final Group current = membership.get(te);
+		if (current != null) {
+			current.isDirty = true;
+			if (current.key.equals(key)) return;
+			current.members.remove(te);
+		}
+
+		Group group = groups.get(key);
+		if (group == null) {
+			group = new Group(key);
+			groups.put(key, group);
+		}
+
+		group.members.add(te);
+		group.isDirty = true;
+		membership.put(te, group);
+	}
+
+	public void remove(TileEntityImaginary te) {
+		final Group group = membership.remove(te);
+		if (group != null) {
+			group.members.remove(te);
+			group.isDirty = true;
+		}
+	}
+
+	private void rebuild(World world, Group group) {
+		final BlockPos origin = group.key.origin;
+		final ImaginaryGeometry.Batch geometry = group.geometry;
+		geometry.begin();
+		for (TileEntityImaginary te : group.members) {
+			final BlockPos pos = te.getPos();
+			final IBlockState state = world.getBlockState(pos).getActualState(world, pos);
+			if (state.getBlock() instanceof BlockImaginary) {
+				geometry.addBlock(templateCache.getUnchecked(state),
+						pos.getX() - origin.getX(), pos.getY() - origin.getY(), pos.getZ() - origin.getZ());
+			}
+		}
+		geometry.end();
+		group.isDirty = false;
+		group.needsCompile = true;
+	}
+
+	private static void compile(Group group, double sortX, double sortY, double sortZ) {
+		if (group.displayList == 0) group.displayList = GL11.glGenLists(1);
+
+		GL11.glNewList(group.displayList, GL11.GL_COMPILE);
+		final Tessellator tessellator = Tessellator.getInstance();
+		final VertexBuffer buffer = tessellator.getBuffer();
+		buffer.begin(GL11.GL_QUADS, ImaginaryGeometry.FORMAT);
+		buffer.addVertexData(group.geometry.getVertexData());
+		buffer.sortVertexData((float)sortX, (float)sortY, (float)sortZ);
+		tessellator.draw();
+		GL11.glEndList();
+
+		group.sortX = sortX;
+		group.sortY = sortY;
+		group.sortZ = sortZ;
+		group.needsCompile = false;
+	}
+
+	private static void draw(Group group, double cameraX, double cameraY, double cameraZ) {
+		final BlockPos origin = group.key.origin;
+		final double dx = origin.getX() - cameraX;
+		final double dy = origin.getY() - cameraY;
+		final double dz = origin.getZ() - cameraZ;
+
+		final double sortDx = -dx - group.sortX;
+		final double sortDy = -dy - group.sortY;
+		final double sortDz = -dz - group.sortZ;
+		if (group.needsCompile || sortDx * sortDx + sortDy * sortDy + sortDz * sortDz > RESORT_DISTANCE_SQ)
+			compile(group, -dx, -dy, -dz);
+
+		GlStateManager.color(group.r, group.g, group.b, group.visibility);
+		GlStateManager.pushMatrix();
+		GlStateManager.translate(dx, dy, dz);
+		GL11.glCallList(group.displayList);
+		GlStateManager.popMatrix();
+	}
+
+	/**
+	 * Called by every visible imaginary block in translucent pass, but does actual work only once per frame.
+	 */
+	public void render() {
+		if (renderedThisFrame) return;
+		renderedThisFrame = true;
+
+		if (membership.isEmpty()) return;
+
+		final Minecraft mc = Minecraft.getMinecraft();
+		final EntityPlayer player = mc.thePlayer;
+		if (player == null) return;
+
+		final World world = player.worldObj;
+		final ImaginationProfile profile = ImaginationProfile.getProfile(player);
+
+		final double cameraX = TileEntityRendererDispatcher.staticPlayerX;
+		final double cameraY = TileEntityRendererDispatcher.staticPlayerY;
+		final double cameraZ = TileEntityRendererDispatcher.staticPlayerZ;
+
+		final Frustum frustum = new Frustum();
+		frustum.setPosition(cameraX, cameraY, cameraZ);
+
+		final Iterator<Group> it = groups.values().iterator();
+		while (it.hasNext()) {
+			final Group group = it.next();
+			if (group.members.isEmpty()) {
+				group.release();
+				it.remove();
+				continue;
+			}
+
+			final GroupKey key = group.key;
+			final double centerX = key.origin.getX() + 8 - cameraX;
+			final double centerY = key.origin.getY() + 8 - cameraY;
+			final double centerZ = key.origin.getZ() + 8 - cameraZ;
+			final double distanceSq = centerX * centerX + centerY * centerY + centerZ * centerZ;
+			if (distanceSq > MAX_RENDER_DISTANCE_SQ) continue;
+
+			final boolean isVisible = profile.is(Property.VISIBLE, key.isPencil, key.color, key.isInverted);
+			if (isVisible && group.visibility < 1) group.visibility = Math.min(group.visibility + Config.imaginaryFadingSpeed, 1);
+			else if (!isVisible && group.visibility > 0) group.visibility = Math.max(group.visibility - Config.imaginaryFadingSpeed, 0);
+
+			if (group.visibility <= 0) continue;
+
+			final BlockPos origin = key.origin;
+			if (!frustum.isBoundingBoxInFrustum(new AxisAlignedBB(origin, origin.add(16, 16, 16)))) continue;
+
+			if (group.isDirty) rebuild(world, group);
+			if (group.geometry.getVertexCount() == 0) continue;
+
+			group.distanceSq = distanceSq;
+			visibleGroups.add(group);
+		}
+
+		if (visibleGroups.isEmpty()) return;
+
+		// translucent groups may overlap, so they have to be drawn back to front
+		Collections.sort(visibleGroups, BACK_TO_FRONT);
+
+		mc.renderEngine.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+		RenderHelper.disableStandardItemLighting();
+		GlStateManager.enableBlend();
+		GlStateManager.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+		GlStateManager.disableCull();
+		GlStateManager.shadeModel(Minecraft.isAmbientOcclusionEnabled()? GL11.GL_SMOOTH : GL11.GL_FLAT);
+
+		for (Group group : visibleGroups)
+			draw(group, cameraX, cameraY, cameraZ);
+
+		visibleGroups.clear();
+
+		GlStateManager.color(1.0f, 1.0f, 1.0f, 1.0f);
+		GlStateManager.shadeModel(GL11.GL_FLAT);
+		GlStateManager.enableCull();
+		GlStateManager.disableBlend();
+		RenderHelper.enableStandardItemLighting();
+	}
+
+	@SubscribeEvent
+	public void onRenderWorldLast(RenderWorldLastEvent evt) {
+		renderedThisFrame = false;
+	}
+
+	@SubscribeEvent
+	public void onModelBake(ModelBakeEvent evt) {
+		templateCache.invalidateAll();
+		for (Group group : groups.values())
+			group.isDirty = true;
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		if (!evt.getWorld().isRemote) return;
+
+		final Iterator<Map.Entry<TileEntityImaginary, Group>> it = membership.entrySet().iterator();
+		while (it.hasNext()) {
+			final Map.Entry<TileEntityImaginary, Group> e = it.next();
+			if (e.getKey().getWorld() == evt.getWorld()) {
+				e.getValue().members.remove(e.getKey());
+				it.remove();
+			}
+		}
+
+		final Iterator<Group> groupIt = groups.values().iterator();
+		while (groupIt.hasNext()) {
+			final Group group = groupIt.next();
+			if (group.members.isEmpty()) {
+				group.release();
+				groupIt.remove();
+			}
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package openblocks.client.renderer;
+
+import gnu.trove.list.array.TFloatArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import java.util.List;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.client.renderer.vertex.VertexFormatElement;
+
+/**
+ * Geometry of imaginary blocks, baked into {@link #FORMAT} vertex data. Does not use GL, so it can be used outside of render thread.
+ * Vertices have no color: group color and fading alpha are applied with current GL color, so they don't require rebuilding or recompiling.
+ */
+public class ImaginaryGeometry {
+
+	public static final VertexFormat FORMAT = new VertexFormat()
+			.addElement(DefaultVertexFormats.POSITION_3F)
+			.addElement(DefaultVertexFormats.TEX_2F)
+			.addElement(DefaultVertexFormats.TEX_2S);
+
+	// POSITION_3F, TEX_2F, TEX_2S
+	public static final int INTS_PER_VERTEX = 6;
+
+	// maximum brightness, because imagination!
+	private static final int FULL_BRIGHTNESS = 0x00F000F0;
+
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * Positions and texture coordinates of model, extracted from quads. Vertex colors are ignored (imaginary models are not tinted).
+	 */
+	public static class Template {
+		private final float[] positions;
+
+		private final float[] uvs;
+
+		private Template(float[] positions, float[] uvs) {
+			this.positions = positions;
+			this.uvs = uvs;
+		}
+
+		public int getVertexCount() {
+			return uvs.length / 2;
+		}
+	}
+
+	private static int findElementOffset(VertexFormat format, VertexFormatElement element) {
+		for (int i = 0; i < format.getElementCount(); i++)
+			if (format.getElement(i).equals(element)) return format.getOffset(i) / 4;
+
+		return -1;
+	}
+
+	public static Template createTemplate(List<BakedQuad> quads) {
+		final TFloatArrayList positions = new TFloatArrayList();
+		final TFloatArrayList uvs = new TFloatArrayList();
+
+		for (BakedQuad quad : quads) {
+			final VertexFormat format = quad.getFormat();
+
+			final int positionOffset = findElementOffset(format, DefaultVertexFormats.POSITION_3F);
+			if (positionOffset < 0) throw new AssertionError("Invalid format: " + format);
+
+			final int textureOffset = findElementOffset(format, DefaultVertexFormats.TEX_2F);
+			if (textureOffset < 0) throw new AssertionError("Invalid format: " + format);
+
+			final int[] vertexData = quad.getVertexData();
+			final int stride = format.getIntegerSize();
+			for (int vertex = 0; vertex + stride <= vertexData.length; vertex += stride) {
+				positions.add(Float.intBitsToFloat(vertexData[vertex + positionOffset + 0]));
+				positions.add(Float.intBitsToFloat(vertexData[vertex + positionOffset + 1]));
+				positions.add(Float.intBitsToFloat(vertexData[vertex + positionOffset + 2]));
+
+				uvs.add(Float.intBitsToFloat(vertexData[vertex + textureOffset + 0]));
+				uvs.add(Float.intBitsToFloat(vertexData[vertex + textureOffset + 1]));
+			}
+		}
+
+		return new Template(positions.toArray(), uvs.toArray());
+	}
+
+	/**
+	 * Vertex data for group of blocks that share color and visibility.
+	 */
+	public static class Batch {
+		private final TIntArrayList builder = new TIntArrayList();
+
+		private int[] vertexData = EMPTY;
+
+		public void begin() {
+			builder.resetQuick();
+		}
+
+		public void addBlock(Template template, float dx, float dy, float dz) {
+			final int vertexCount = template.getVertexCount();
+			for (int i = 0; i < vertexCount; i++) {
+				builder.add(Float.floatToRawIntBits(template.positions[3 * i + 0] + dx));
+				builder.add(Float.floatToRawIntBits(template.positions[3 * i + 1] + dy));
+				builder.add(Float.floatToRawIntBits(template.positions[3 * i + 2] + dz));
+				builder.add(Float.floatToRawIntBits(template.uvs[2 * i + 0]));
+				builder.add(Float.floatToRawIntBits(template.uvs[2 * i + 1]));
+				builder.add(FULL_BRIGHTNESS);
+			}
+		}
+
+		public void end() {
+			vertexData = builder.toArray();
+		}
+
+		public int[] getVertexData() {
+			return vertexData;
+		}
+
+		public int getVertexCount() {
+			return vertexData.length / INTS_PER_VERTEX;
+		}
+	}
+}
@@ -0,0 +1,281 @@
+package openblocks.client.renderer;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.VertexBuffer;
+import net.minecraft.client.renderer.tileentity.TileEntityRendererDispatcher;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import openblocks.common.block.BlockSky;
+import openblocks.common.tileentity.TileEntitySky;
+import org.lwjgl.opengl.GL11;
+
+/**
+ * Renders all active sky blocks at once: stencil mask from merged per-section meshes, then single sky composite.
+ * Section meshes are rebuilt only after sky blocks in (or next to) section change.
+ */
+public class SkyBlockBatcher {
+
+	public static final SkyBlockBatcher instance = new SkyBlockBatcher();
+
+	// same as TileEntitySky.getMaxRenderDistanceSquared + section diagonal
+	private static final double MAX_RENDER_DISTANCE_SQ = (256 + 14) * (256 + 14);
+
+	private static final int[] EMPTY = new int[0];
+
+	private static BlockPos sectionOrigin(BlockPos pos) {
+		return new BlockPos(pos.getX() & ~15, pos.getY() & ~15, pos.getZ() & ~15);
+	}
+
+	private static class Section {
+		private final BlockPos origin;
+
+		private final Set<TileEntitySky> members = Sets.newIdentityHashSet();
+
+		private int[] vertexData = EMPTY;
+
+		private boolean isDirty = true;
+
+		public Section(BlockPos origin) {
+			this.origin = origin;
+		}
+	}
+
+	private final Map<BlockPos, Section> sections = Maps.newHashMap();
+
+	private final Map<TileEntitySky, Section> membership = Maps.newIdentityHashMap();
+
+	private boolean renderedThisFrame;
+
+	private class WorldListener implements IWorldEventListener {
+
+		@Override
+		public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+			if (oldState.getBlock() instanceof BlockSky || newState.getBlock() instanceof BlockSky) markDirty(pos);
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent sound, SoundCategory category, double x, double y, double z, float volume, float pitch) {}
+
+		@Override
+		public void playRecord(SoundEvent sound, BlockPos pos) {}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void onEntityAdded(Entity entity) {}
+
+		@Override
+		public void onEntityRemoved(Entity entity) {}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos pos, int data) {}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+	}
+
+	private final WorldListener listener = new WorldListener();
+
+	// block and its neighbours, since shared faces may appear or disappear
+	private void markDirty(BlockPos pos) {
+		markSectionDirty(pos);
+		for (EnumFacing side : EnumFacing.VALUES)
+			markSectionDirty(pos.offset(side));
+	}
+
+	private void markSectionDirty(BlockPos pos) {
+		final Section section = sections.get(sectionOrigin(pos));
+		if (section != null) section.isDirty = true;
+	}
+
+	public void update(TileEntitySky te) {
+		if (membership.containsKey(te)) return;
+
+		final BlockPos origin = sectionOrigin(te.getPos());
+		Section section = sections.get(origin);
+		if (section == null) {
+			section = new Section(origin);
+			sections.put(origin, section);
+		}
+
+		section.members.add(te);
+		membership.put(te, section);
+		markDirty(te.getPos());
+	}
+
+	public void remove(TileEntitySky te) {
+		final Section section = membership.remove(te);
+		if (section != null) {
+			section.members.remove(te);
+			markDirty(te.getPos());
+		}
+	}
+
+	private static boolean isActive(World world, BlockPos pos) {
+		final IBlockState state = world.getBlockState(pos);
+		return state.getBlock() instanceof BlockSky && BlockSky.isActive(state);
+	}
+
+	private static void rebuild(final World world, Section section) {
+		final SkyBlockMeshBuilder builder = new SkyBlockMeshBuilder(section.origin, new Predicate<BlockPos>() {
+			@Override
+			public boolean apply(BlockPos input) {
+				return isActive(world, input);
+			}
+		});
+
+		for (TileEntitySky te : section.members) {
+			final BlockPos pos = te.getPos();
+			if (isActive(world, pos)) builder.addBlock(pos);
+		}
+
+		section.vertexData = builder.build();
+		section.isDirty = false;
+	}
+
+	private static void drawMask(Section section, double cameraX, double cameraY, double cameraZ) {
+		final BlockPos origin = section.origin;
+		final Tessellator tessellator = Tessellator.getInstance();
+		final VertexBuffer buffer = tessellator.getBuffer();
+		buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION);
+		buffer.addVertexData(section.vertexData);
+
+		GlStateManager.pushMatrix();
+		GlStateManager.translate(origin.getX() - cameraX, origin.getY() - cameraY, origin.getZ() - cameraZ);
+		tessellator.draw();
+		GlStateManager.popMatrix();
+	}
+
+	private boolean drawMasks(World world, double cameraX, double cameraY, double cameraZ) {
+		boolean hasGeometry = false;
+
+		final Iterator<Section> it = sections.values().iterator();
+		while (it.hasNext()) {
+			final Section section = it.next();
+			if (section.members.isEmpty()) {
+				it.remove();
+				continue;
+			}
+
+			final BlockPos origin = section.origin;
+			final double centerX = origin.getX() + 8 - cameraX;
+			final double centerY = origin.getY() + 8 - cameraY;
+			final double centerZ = origin.getZ() + 8 - cameraZ;
+			if (centerX * centerX + centerY * centerY + centerZ * centerZ > MAX_RENDER_DISTANCE_SQ) continue;
+
+			if (section.isDirty) rebuild(world, section);
+			if (section.vertexData.length == 0) continue;
+
+			drawMask(section, cameraX, cameraY, cameraZ);
+			hasGeometry = true;
+		}
+
+		return hasGeometry;
+	}
+
+	public boolean isStencilActive() {
+		return SkyBlockRenderer.INSTANCE.getStencilMask() >= 0 && SkyBlockRenderer.INSTANCE.hasSkyTexture();
+	}
+
+	/**
+	 * Called by every visible sky block, but does actual work only once per frame.
+	 */
+	public void render() {
+		if (renderedThisFrame) return;
+		renderedThisFrame = true;
+
+		final Minecraft mc = Minecraft.getMinecraft();
+		final World world = mc.theWorld;
+		if (world == null || membership.isEmpty()) return;
+
+		SkyBlockRenderer.INSTANCE.incrementUsers();
+
+		final int stencilMask = SkyBlockRenderer.INSTANCE.getStencilMask();
+		GL11.glEnable(GL11.GL_STENCIL_TEST);
+		GL11.glStencilMask(stencilMask);
+
+		GL11.glClearStencil(0);
+		GL11.glClear(GL11.GL_STENCIL_BUFFER_BIT);
+
+		GL11.glStencilFunc(GL11.GL_ALWAYS, stencilMask, stencilMask);
+		GL11.glStencilOp(GL11.GL_KEEP, GL11.GL_KEEP, GL11.GL_REPLACE);
+
+		GL11.glColorMask(false, false, false, false);
+		GlStateManager.disableTexture2D();
+		GlStateManager.disableCull();
+
+		final boolean hasGeometry = drawMasks(world,
+				TileEntityRendererDispatcher.staticPlayerX,
+				TileEntityRendererDispatcher.staticPlayerY,
+				TileEntityRendererDispatcher.staticPlayerZ);
+
+		GlStateManager.enableCull();
+		GlStateManager.enableTexture2D();
+		GL11.glColorMask(true, true, true, true);
+
+		if (hasGeometry) {
+			GL11.glStencilFunc(GL11.GL_EQUAL, stencilMask, stencilMask);
+			GL11.glStencilOp(GL11.GL_KEEP, GL11.GL_KEEP, GL11.GL_KEEP);
+			SkyBlockRenderer.INSTANCE.renderSkyTexture();
+		}
+		GL11.glDisable(GL11.GL_STENCIL_TEST);
+	}
+
+	@SubscribeEvent
+	public void onRenderWorldLast(RenderWorldLastEvent evt) {
+		renderedThisFrame = false;
+	}
+
+	@SubscribeEvent
+	public void onWorldLoad(WorldEvent.Load evt) {
+		final World world = evt.getWorld();
+		if (world.isRemote) world.addEventListener(listener);
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		final World world = evt.getWorld();
+		if (!world.isRemote) return;
+
+		world.removeEventListener(listener);
+
+		final Iterator<Map.Entry<TileEntitySky, Section>> it = membership.entrySet().iterator();
+		while (it.hasNext()) {
+			final Map.Entry<TileEntitySky, Section> e = it.next();
+			if (e.getKey().getWorld() == world) {
+				e.getValue().members.remove(e.getKey());
+				it.remove();
+			}
+		}
+	}
+}
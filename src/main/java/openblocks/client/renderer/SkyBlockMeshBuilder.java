@@ -0,0 +1,73 @@
+package openblocks.client.renderer;
+
+import com.google.common.base.Predicate;
+import gnu.trove.list.array.TIntArrayList;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Builds stencil mask geometry for group of sky blocks: single mesh of unit cube faces, without faces shared by two active sky blocks.
+ * Output is {@link DefaultVertexFormats#POSITION} vertex data, positions relative to given origin. Does not use GL.
+ */
+public class SkyBlockMeshBuilder {
+
+	public static final int INTS_PER_VERTEX = 3;
+
+	public static final int VERTICES_PER_FACE = 4;
+
+	public static final int INTS_PER_FACE = INTS_PER_VERTEX * VERTICES_PER_FACE;
+
+	// corners of every face, counter-clockwise when looking from outside, indexed by EnumFacing ordinal
+	private static final int[][] FACE_CORNERS = new int[][] {
+			{ 0, 0, 0, 1, 0, 0, 1, 0, 1, 0, 0, 1 }, // DOWN
+			{ 0, 1, 0, 0, 1, 1, 1, 1, 1, 1, 1, 0 }, // UP
+			{ 0, 0, 0, 0, 1, 0, 1, 1, 0, 1, 0, 0 }, // NORTH
+			{ 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1 }, // SOUTH
+			{ 0, 0, 0, 0, 0, 1, 0, 1, 1, 0, 1, 0 }, // WEST
+			{ 1, 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1 }, // EAST
+	};
+
+	private final TIntArrayList vertexData = new TIntArrayList();
+
+	private final BlockPos origin;
+
+	private final Predicate<BlockPos> isActive;
+
+	public SkyBlockMeshBuilder(BlockPos origin, Predicate<BlockPos> isActive) {
+		this.origin = origin;
+		this.isActive = isActive;
+	}
+
+	/**
+	 * Add faces of block that are not covered by neighbouring active sky blocks. Block itself is assumed to be active.
+	 */
+	public void addBlock(BlockPos pos) {
+		final int x = pos.getX() - origin.getX();
+		final int y = pos.getY() - origin.getY();
+		final int z = pos.getZ() - origin.getZ();
+
+		for (EnumFacing side : EnumFacing.VALUES) {
+			if (isActive.apply(pos.offset(side))) continue;
+
+			final int[] corners = FACE_CORNERS[side.ordinal()];
+			for (int i = 0; i < corners.length; i += 3) {
+				vertexData.add(Float.floatToRawIntBits(x + corners[i + 0]));
+				vertexData.add(Float.floatToRawIntBits(y + corners[i + 1]));
+				vertexData.add(Float.floatToRawIntBits(z + corners[i + 2]));
+			}
+		}
+	}
+
+	public int getFaceCount() {
+		return vertexData.size() / INTS_PER_FACE;
+	}
+
+	public int getVertexCount() {
+		return vertexData.size() / INTS_PER_VERTEX;
+	}
+
+	public int[] build() {
+		return vertexData.toArray();
+	}
+}
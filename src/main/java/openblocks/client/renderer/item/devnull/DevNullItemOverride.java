@@ -4,16 +4,16 @@ import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import javax.vecmath.Matrix4f;
-import javax.vecmath.Vector4f;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.BakedQuad;
@@ -123,9 +123,6 @@ public class DevNullItemOverride extends ItemOverrideList {
 
 			final boolean isGui = key.transform == TransformType.GUI;
 
-			final float scale = (float)Math.pow(isGui? scaleFactor2d : scaleFactor3d, depth + 1);
-
-			final Matrix4f quadTransformMatrix = isGui? scale2d(scale) : scale3d(scale);
 			Matrix4f modelTransformMatrix = null;
 
 			if (innerModel instanceof IPerspectiveAwareModel) {
@@ -136,20 +133,25 @@ public class DevNullItemOverride extends ItemOverrideList {
 			// TODO maybe; legacy models?
 
 			final Matrix4f perspectiveMatrix;
+			final Matrix4f quadTransformMatrix;
 			if (isGui) {
-				// bake contained item transform into quads
-				if (modelTransformMatrix != null)
+				if (modelTransformMatrix != null) {
+					// bake contained item transform into quads
+					quadTransformMatrix = new Matrix4f(contentScales2d[depth]);
 					quadTransformMatrix.mul(modelTransformMatrix);
+					wrapTransform(quadTransformMatrix);
+				} else {
+					quadTransformMatrix = wrappedContentScales2d[depth];
+				}
 
 				// use container transform
 				perspectiveMatrix = transforms2d.get(TransformType.GUI);
 			} else {
 				// quads (frame and contents) will be scaled, but contained item's original transform will be returned as perspective
+				quadTransformMatrix = wrappedContentScales3d[depth];
 				perspectiveMatrix = modelTransformMatrix;
 			}
 
-			wrapTransform(quadTransformMatrix);
-
 			final List<BakedQuad> allQuads = Lists.newArrayList();
 			apppendFrameQuads(isGui? frameQuads2d : frameQuads3d, depth, transformType, allQuads);
 			appendScaledModelQuads(allQuads, innerModel, quadTransformMatrix, ItemDevNull.NESTED_ITEM_TINT_DELTA);
@@ -231,28 +233,40 @@ public class DevNullItemOverride extends ItemOverrideList {
 		return Minecraft.getMinecraft().getRenderItem().getItemModelMesher().getItemModel(stack);
 	}
 
-	private static BakedQuad rescaleQuad(BakedQuad quad, Matrix4f transform, int tintDelta) {
+	static BakedQuad rescaleQuad(BakedQuad quad, Matrix4f transform, int tintDelta) {
 		final int delta = quad.getFormat().getIntegerSize();
-		final int[] inputVertexData = quad.getVertexData();
-		final int[] outputVertexData = Arrays.copyOf(inputVertexData, inputVertexData.length);
-		int elementOffset = 0;
-		for (int i = 0; i < 4; i++) {
-			float x = Float.intBitsToFloat(inputVertexData[elementOffset + 0]);
-			float y = Float.intBitsToFloat(inputVertexData[elementOffset + 1]);
-			float z = Float.intBitsToFloat(inputVertexData[elementOffset + 2]);
-
-			final Vector4f v = new Vector4f(x, y, z, 1);
-			transform.transform(v);
-
-			outputVertexData[elementOffset + 0] = Float.floatToIntBits(v.x);
-			outputVertexData[elementOffset + 1] = Float.floatToIntBits(v.y);
-			outputVertexData[elementOffset + 2] = Float.floatToIntBits(v.z);
-
-			elementOffset += delta;
-		}
+		final int[] vertexData = Arrays.copyOf(quad.getVertexData(), quad.getVertexData().length);
+		transformPositions(vertexData, delta, transform);
 
 		final int tintIndex = quad.hasTintIndex()? quad.getTintIndex() + tintDelta : -1;
-		return new BakedQuad(outputVertexData, tintIndex, quad.getFace(), quad.getSprite(), quad.shouldApplyDiffuseLighting(), quad.getFormat());
+		return new BakedQuad(vertexData, tintIndex, quad.getFace(), quad.getSprite(), quad.shouldApplyDiffuseLighting(), quad.getFormat());
+	}
+
+	/**
+	 * Transforms (in place) positions of all vertices in packed data. Position is assumed to be first element of vertex format.
+	 */
+	static void transformPositions(int[] vertexData, int stride, Matrix4f m) {
+		for (int offset = 0; offset + 2 < vertexData.length; offset += stride) {
+			final float x = Float.intBitsToFloat(vertexData[offset + 0]);
+			final float y = Float.intBitsToFloat(vertexData[offset + 1]);
+			final float z = Float.intBitsToFloat(vertexData[offset + 2]);
+
+			vertexData[offset + 0] = Float.floatToIntBits(m.m00 * x + m.m01 * y + m.m02 * z + m.m03);
+			vertexData[offset + 1] = Float.floatToIntBits(m.m10 * x + m.m11 * y + m.m12 * z + m.m13);
+			vertexData[offset + 2] = Float.floatToIntBits(m.m20 * x + m.m21 * y + m.m22 * z + m.m23);
+		}
+	}
+
+	private static Matrix4f[] prepareContentScales(float scaleFactor, boolean is3d, boolean wrap) {
+		final Matrix4f[] result = new Matrix4f[ItemDevNull.STACK_LIMIT];
+		float scale = scaleFactor;
+		for (int depth = 0; depth < ItemDevNull.STACK_LIMIT; depth++) {
+			final Matrix4f matrix = is3d? scale3d(scale) : scale2d(scale);
+			if (wrap) wrapTransform(matrix);
+			result[depth] = matrix;
+			scale *= scaleFactor;
+		}
+		return result;
 	}
 
 	private static Matrix4f scale2d(float scale) {
@@ -276,17 +290,35 @@ public class DevNullItemOverride extends ItemOverrideList {
 
 	private final TextureAtlasSprite particle;
 
-	private final float scaleFactor2d;
 	private final List<List<BakedQuad>> frameQuads2d;
 	private final List<IBakedModel> emptyFrameModels2d;
 	private final Map<TransformType, Matrix4f> transforms2d;
 
-	private final float scaleFactor3d;
 	private final List<List<BakedQuad>> frameQuads3d;
 	private final List<IBakedModel> emptyFrameModels3d;
 	private final Map<TransformType, Matrix4f> transforms3d;
 
-	private final LoadingCache<ModelKey, Pair<? extends IBakedModel, Matrix4f>> wrappedModelCache = CacheBuilder.newBuilder().expireAfterAccess(5, TimeUnit.SECONDS).build(new ModelFactory());
+	// per depth, for contents (which are one level deeper than frame)
+	private final Matrix4f[] contentScales2d;
+	private final Matrix4f[] wrappedContentScales2d;
+	private final Matrix4f[] wrappedContentScales3d;
+
+	// roughly few hundred of simple item models
+	private static final int MODEL_CACHE_MAX_QUADS = 64 * 1024;
+
+	private static final Weigher<ModelKey, Pair<? extends IBakedModel, Matrix4f>> QUAD_COUNT_WEIGHER = new Weigher<ModelKey, Pair<? extends IBakedModel, Matrix4f>>() {
+		@Override
+		public int weigh(ModelKey key, Pair<? extends IBakedModel, Matrix4f> value) {
+			// BakedDevNull returns same quads for every side
+			return 1 + value.getLeft().getQuads(null, null, 0).size();
+		}
+	};
+
+	private final LoadingCache<ModelKey, Pair<? extends IBakedModel, Matrix4f>> wrappedModelCache = CacheBuilder.newBuilder()
+			.maximumWeight(MODEL_CACHE_MAX_QUADS)
+			.weigher(QUAD_COUNT_WEIGHER)
+			.recordStats()
+			.build(new ModelFactory());
 
 	private static List<BakedQuad> rescaleModel(IBakedModel model, float scale, boolean is3d) {
 		final Matrix4f scaleMatrix = is3d? scale3d(scale) : scale2d(scale);
@@ -343,16 +375,17 @@ public class DevNullItemOverride extends ItemOverrideList {
 			final List<List<BakedQuad>> scaledFrames = prepareScaledFrames(gui, false);
 			this.frameQuads2d = composeScaledFrames(scaledFrames);
 			this.emptyFrameModels2d = prepareFramesBakedModels(this.frameQuads2d, TransformType.GUI);
-			this.scaleFactor2d = gui.scaleFactor;
 			this.transforms2d = gui.transforms;
+			this.contentScales2d = prepareContentScales(gui.scaleFactor, false, false);
+			this.wrappedContentScales2d = prepareContentScales(gui.scaleFactor, false, true);
 		}
 
 		{
 			final List<List<BakedQuad>> scaledFrames = prepareScaledFrames(world, true);
 			this.frameQuads3d = composeScaledFrames(scaledFrames);
 			this.emptyFrameModels3d = prepareFramesBakedModels(this.frameQuads3d, TransformType.NONE);
-			this.scaleFactor3d = world.scaleFactor;
 			this.transforms3d = world.transforms;
+			this.wrappedContentScales3d = prepareContentScales(world.scaleFactor, true, true);
 		}
 	}
 
@@ -367,6 +400,10 @@ public class DevNullItemOverride extends ItemOverrideList {
 		}
 	}
 
+	public CacheStats getModelCacheStats() {
+		return wrappedModelCache.stats();
+	}
+
 	public IBakedModel getEmptyBakedModel() {
 		return emptyFrameModels2d.get(0);
 	}
@@ -12,6 +12,7 @@ import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockAccess;
 import net.minecraftforge.client.MinecraftForgeClient;
+import openblocks.client.renderer.SkyBlockBatcher;
 import openblocks.client.renderer.SkyBlockRenderer;
 import openblocks.common.block.BlockSky;
 import openblocks.common.tileentity.TileEntitySky;
@@ -23,6 +24,12 @@ public class TileEntitySkyRenderer extends TileEntitySpecialRenderer<TileEntityS
 
 	@Override
 	public void renderTileEntityAt(TileEntitySky te, double x, double y, double z, float partialTickTime, int destroyStage) {
+		if (SkyBlockBatcher.instance.isStencilActive()) {
+			// all sky blocks are rendered in single batch, as long as any of them is visible
+			SkyBlockBatcher.instance.render();
+			return;
+		}
+
 		BlockPos pos = te.getPos();
 		IBlockAccess world = MinecraftForgeClient.getRegionRenderCache(te.getWorld(), pos);
 		IBlockState state = world.getBlockState(pos).getActualState(world, pos);
@@ -30,32 +37,7 @@ public class TileEntitySkyRenderer extends TileEntitySpecialRenderer<TileEntityS
 		if (!(state.getBlock() instanceof BlockSky) || !BlockSky.isActive(state)) return;
 
 		SkyBlockRenderer.INSTANCE.incrementUsers();
-
-		final int stencilMask = SkyBlockRenderer.INSTANCE.getStencilMask();
-		final boolean stencilActive = stencilMask >= 0 && SkyBlockRenderer.INSTANCE.hasSkyTexture();
-		if (stencilActive) {
-			GL11.glEnable(GL11.GL_STENCIL_TEST);
-			GL11.glStencilMask(stencilMask);
-
-			GL11.glClearStencil(0);
-			GL11.glClear(GL11.GL_STENCIL_BUFFER_BIT);
-
-			GL11.glStencilFunc(GL11.GL_ALWAYS, stencilMask, stencilMask);
-			GL11.glStencilOp(GL11.GL_KEEP, GL11.GL_KEEP, GL11.GL_REPLACE);
-
-			GL11.glColorMask(false, false, false, false);
-		}
-
 		renderModel(x, y, z, pos, world, state);
-
-		if (stencilActive) {
-			GL11.glColorMask(true, true, true, true);
-
-			GL11.glStencilFunc(GL11.GL_EQUAL, stencilMask, stencilMask);
-			GL11.glStencilOp(GL11.GL_KEEP, GL11.GL_KEEP, GL11.GL_KEEP);
-			SkyBlockRenderer.INSTANCE.renderSkyTexture();
-			GL11.glDisable(GL11.GL_STENCIL_TEST);
-		}
 	}
 
 	private void renderModel(double x, double y, double z, BlockPos pos, IBlockAccess world, IBlockState state) {
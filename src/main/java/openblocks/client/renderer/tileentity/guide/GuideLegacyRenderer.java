@@ -1,61 +1,169 @@
 package openblocks.client.renderer.tileentity.guide;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.Maps;
 import java.nio.FloatBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import net.minecraft.client.renderer.GLAllocation;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.VertexBuffer;
-import net.minecraft.client.renderer.WorldVertexBufferUploader;
+import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.client.renderer.tileentity.TileEntityRendererDispatcher;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import openblocks.Config;
 import openblocks.common.tileentity.TileEntityGuide;
 import openblocks.shapes.CoordShape;
-import openmods.utils.OptionalInt;
 import openmods.utils.TextureUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 
 public class GuideLegacyRenderer implements IGuideRenderer {
 
-	private OptionalInt markerDisplayList = OptionalInt.absent();
+	private static final long EVICTION_CHECK_PERIOD = 1000;
 
-	@Override
-	public void onModelBake(Supplier<VertexBuffer> model) {
-		if (markerDisplayList.isPresent()) {
-			GL11.glDeleteLists(markerDisplayList.get(), 1);
+	private static final long EVICTION_TIMEOUT = 10 * 1000;
+
+	// section diagonal, so sections partially in range are not skipped
+	private static final double SECTION_MARGIN = GuideMeshBuilder.SECTION_SIZE * Math.sqrt(3);
+
+	private static class CachedMesh {
+		private final float scale;
+
+		private final List<GuideMeshBuilder.Section> sections;
+
+		// compiled lazily, 0 = not compiled yet
+		private final int[] displayLists;
+
+		private long lastUse;
+
+		public CachedMesh(GuideMeshBuilder.Mesh mesh, float scale) {
+			this.scale = scale;
+			this.sections = mesh.sections;
+			this.displayLists = new int[sections.size()];
+		}
+
+		public void release() {
+			for (int i = 0; i < displayLists.length; i++) {
+				if (displayLists[i] != 0) {
+					GL11.glDeleteLists(displayLists[i], 1);
+					displayLists[i] = 0;
+				}
+			}
+		}
+	}
+
+	private static class ShapeMeshes {
+		private CachedMesh full;
+
+		// shapes are scaled only for short time after change
+		private CachedMesh animated;
+
+		public void release() {
+			if (full != null) full.release();
+			if (animated != null) animated.release();
 		}
+	}
+
+	private GuideMeshBuilder meshBuilder;
 
+	private final Map<CoordShape, ShapeMeshes> meshes = Maps.newIdentityHashMap();
+
+	private long lastEvictionCheck;
+
+	@Override
+	public void onModelBake(Supplier<VertexBuffer> model) {
 		final VertexBuffer vb = model.get();
+		final VertexFormat format = vb.getVertexFormat();
 
-		final int newList = GL11.glGenLists(1);
+		final int[] vertexData = new int[vb.getVertexCount() * format.getIntegerSize()];
+		vb.getByteBuffer().asIntBuffer().get(vertexData);
 
-		GL11.glNewList(newList, GL11.GL_COMPILE);
-		new WorldVertexBufferUploader().draw(vb);
-		GL11.glEndList();
+		meshBuilder = new GuideMeshBuilder(vertexData, format);
 
-		markerDisplayList = OptionalInt.of(newList);
+		for (ShapeMeshes shapeMeshes : meshes.values())
+			shapeMeshes.release();
+		meshes.clear();
 	}
 
 	@Override
 	public void renderShape(TileEntityGuide guide) {
+		final long now = System.currentTimeMillis();
+
 		float scaleDelta = guide.getTimeSinceChange();
-		renderShape(guide.getShape(), guide.getColor(), scaleDelta);
+		renderShape(guide.getPos(), guide.getShape(), guide.getColor(), scaleDelta, now);
 		if (scaleDelta < 1.0) {
-			renderShape(guide.getPreviousShape(), guide.getColor(), 1.0f - scaleDelta);
+			renderShape(guide.getPos(), guide.getPreviousShape(), guide.getColor(), 1.0f - scaleDelta, now);
+		}
+
+		CoordShape toDelete = guide.getAndDeleteShape();
+		if (toDelete != null) {
+			final ShapeMeshes shapeMeshes = meshes.remove(toDelete);
+			if (shapeMeshes != null) shapeMeshes.release();
+		}
+
+		if (now - lastEvictionCheck > EVICTION_CHECK_PERIOD) {
+			lastEvictionCheck = now;
+			evictUnused(now);
+		}
+	}
+
+	private void evictUnused(long now) {
+		final Iterator<ShapeMeshes> it = meshes.values().iterator();
+		while (it.hasNext()) {
+			final ShapeMeshes shapeMeshes = it.next();
+			if (shapeMeshes.animated != null && now - shapeMeshes.animated.lastUse > EVICTION_TIMEOUT) {
+				shapeMeshes.animated.release();
+				shapeMeshes.animated = null;
+			}
+
+			if (shapeMeshes.full != null && now - shapeMeshes.full.lastUse > EVICTION_TIMEOUT) {
+				shapeMeshes.full.release();
+				shapeMeshes.full = null;
+			}
+
+			if (shapeMeshes.full == null && shapeMeshes.animated == null) it.remove();
 		}
 	}
 
+	private CachedMesh getMesh(CoordShape shape, float scale) {
+		ShapeMeshes shapeMeshes = meshes.get(shape);
+		if (shapeMeshes == null) {
+			shapeMeshes = new ShapeMeshes();
+			meshes.put(shape, shapeMeshes);
+		}
+
+		if (scale >= 1.0f) {
+			if (shapeMeshes.full == null) shapeMeshes.full = new CachedMesh(meshBuilder.build(shape, 1.0f), 1.0f);
+			return shapeMeshes.full;
+		}
+
+		if (shapeMeshes.animated == null || shapeMeshes.animated.scale != scale) {
+			if (shapeMeshes.animated != null) shapeMeshes.animated.release();
+			shapeMeshes.animated = new CachedMesh(meshBuilder.build(shape, scale), scale);
+		}
+
+		return shapeMeshes.animated;
+	}
+
 	private static float byteToFloat(int value) {
 		return (value & 0xFF) / 255.0f;
 	}
 
 	private final FloatBuffer brightnessBuffer = GLAllocation.createDirectFloatBuffer(4);
 
-	private void renderShape(CoordShape shape, int color, float scale) {
-		if (shape == null || !markerDisplayList.isPresent()) return;
+	private void renderShape(BlockPos origin, CoordShape shape, int color, float scale, long now) {
+		if (shape == null || meshBuilder == null || scale <= 0) return;
+
+		final CachedMesh mesh = getMesh(shape, scale);
+		mesh.lastUse = now;
 
-		final int displayList = markerDisplayList.get();
 		TextureUtils.bindTextureToClient(TextureMap.LOCATION_BLOCKS_TEXTURE);
 		GlStateManager.enableBlend();
 		GlStateManager.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE);
@@ -84,8 +192,7 @@ public class GuideLegacyRenderer implements IGuideRenderer {
 		GlStateManager.glTexEnvi(GL11.GL_TEXTURE_ENV, OpenGlHelper.GL_SOURCE0_ALPHA, GL11.GL_TEXTURE);
 		GlStateManager.glTexEnvi(GL11.GL_TEXTURE_ENV, OpenGlHelper.GL_OPERAND0_ALPHA, GL11.GL_SRC_ALPHA);
 
-		for (BlockPos coord : shape.getCoords())
-			renderMarkerAt(displayList, coord.getX(), coord.getY(), coord.getZ(), scale);
+		renderSections(origin, mesh);
 
 		GlStateManager.setActiveTexture(OpenGlHelper.defaultTexUnit);
 		GlStateManager.disableOutlineMode();
@@ -94,11 +201,49 @@ public class GuideLegacyRenderer implements IGuideRenderer {
 		GlStateManager.enableLighting();
 	}
 
-	private static void renderMarkerAt(int markerDisplayList, double x, double y, double z, float scale) {
-		GL11.glPushMatrix();
-		GL11.glTranslated(x, y, z);
-		GL11.glScalef(scale, scale, scale);
-		GL11.glCallList(markerDisplayList);
-		GL11.glPopMatrix();
+	private void renderSections(BlockPos origin, CachedMesh mesh) {
+		final double cameraX = TileEntityRendererDispatcher.staticPlayerX;
+		final double cameraY = TileEntityRendererDispatcher.staticPlayerY;
+		final double cameraZ = TileEntityRendererDispatcher.staticPlayerZ;
+
+		final Frustum frustum = new Frustum();
+		frustum.setPosition(cameraX, cameraY, cameraZ);
+
+		final double maxDistance = Math.sqrt(Config.guideRenderRangeSq) + SECTION_MARGIN;
+		final double maxDistanceSq = maxDistance * maxDistance;
+		final double halfSection = GuideMeshBuilder.SECTION_SIZE / 2.0;
+
+		for (int i = 0; i < mesh.displayLists.length; i++) {
+			final GuideMeshBuilder.Section section = mesh.sections.get(i);
+			final double minX = origin.getX() + section.minX;
+			final double minY = origin.getY() + section.minY;
+			final double minZ = origin.getZ() + section.minZ;
+
+			final double dx = minX + halfSection - cameraX;
+			final double dy = minY + halfSection - cameraY;
+			final double dz = minZ + halfSection - cameraZ;
+			if (dx * dx + dy * dy + dz * dz > maxDistanceSq) continue;
+
+			final AxisAlignedBB bounds = new AxisAlignedBB(minX, minY, minZ,
+					minX + GuideMeshBuilder.SECTION_SIZE, minY + GuideMeshBuilder.SECTION_SIZE, minZ + GuideMeshBuilder.SECTION_SIZE);
+			if (!frustum.isBoundingBoxInFrustum(bounds)) continue;
+
+			if (mesh.displayLists[i] == 0) mesh.displayLists[i] = compileSection(section);
+			GL11.glCallList(mesh.displayLists[i]);
+		}
+	}
+
+	private int compileSection(GuideMeshBuilder.Section section) {
+		final int displayList = GL11.glGenLists(1);
+		GL11.glNewList(displayList, GL11.GL_COMPILE);
+
+		final Tessellator tessellator = Tessellator.getInstance();
+		final VertexBuffer buffer = tessellator.getBuffer();
+		buffer.begin(GL11.GL_QUADS, meshBuilder.getFormat());
+		buffer.addVertexData(section.vertexData);
+		tessellator.draw();
+
+		GL11.glEndList();
+		return displayList;
 	}
 }
@@ -0,0 +1,210 @@
+package openblocks.client.renderer.tileentity.guide;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import java.util.List;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import openblocks.shapes.CoordShape;
+
+/**
+ * Bakes all markers of shape into single mesh, split into 16x16x16 sections (for culling).
+ * Marker faces that lie on cell boundary are skipped when neighbouring cell also has marker (only in full scale meshes).
+ * Faces inside cell (like all faces of inset marker) are always emitted, since they are visible through additive blending.
+ * Works only on vertex data (position is expected to be first element of format), so it can be used without GL context.
+ */
+public class GuideMeshBuilder {
+
+	public static final int SECTION_SIZE_BITS = 4;
+
+	public static final int SECTION_SIZE = 1 << SECTION_SIZE_BITS;
+
+	private static final int VERTICES_PER_QUAD = 4;
+
+	// quads not lying on cell boundary (or not aligned to any axis), never culled
+	private static final int NEVER_CULLED = EnumFacing.VALUES.length;
+
+	private static final float BOUNDARY_EPSILON = 1.0f / 1024;
+
+	public static class Section {
+		// shape-local coordinates of section corner
+		public final int minX;
+		public final int minY;
+		public final int minZ;
+
+		public final int[] vertexData;
+
+		public final int vertexCount;
+
+		private Section(BlockPos origin, int[] vertexData, int vertexCount) {
+			this.minX = origin.getX();
+			this.minY = origin.getY();
+			this.minZ = origin.getZ();
+			this.vertexData = vertexData;
+			this.vertexCount = vertexCount;
+		}
+	}
+
+	public static class Mesh {
+		public final List<Section> sections;
+
+		public final int vertexCount;
+
+		public final long buildTimeNanos;
+
+		private Mesh(List<Section> sections, int vertexCount, long buildTimeNanos) {
+			this.sections = sections;
+			this.vertexCount = vertexCount;
+			this.buildTimeNanos = buildTimeNanos;
+		}
+	}
+
+	private final VertexFormat format;
+
+	private final int intsPerVertex;
+
+	private final int[][] quadsBySide = new int[NEVER_CULLED + 1][];
+
+	public GuideMeshBuilder(int[] markerVertexData, VertexFormat format) {
+		this.format = format;
+		this.intsPerVertex = format.getIntegerSize();
+
+		final int intsPerQuad = intsPerVertex * VERTICES_PER_QUAD;
+		Preconditions.checkArgument(markerVertexData.length % intsPerQuad == 0, "Marker model must be made of quads");
+
+		final TIntArrayList[] sides = new TIntArrayList[quadsBySide.length];
+		for (int i = 0; i < sides.length; i++)
+			sides[i] = new TIntArrayList();
+
+		for (int quad = 0; quad < markerVertexData.length; quad += intsPerQuad)
+			sides[getCullSide(markerVertexData, quad)].add(markerVertexData, quad, intsPerQuad);
+
+		for (int i = 0; i < sides.length; i++)
+			quadsBySide[i] = sides[i].toArray();
+	}
+
+	/**
+	 * @return true if any quad of marker can be culled, i.e. marker reaches at least one face of its cell
+	 */
+	private boolean hasCullableFaces() {
+		for (int i = 0; i < NEVER_CULLED; i++)
+			if (quadsBySide[i].length > 0) return true;
+
+		return false;
+	}
+
+	public VertexFormat getFormat() {
+		return format;
+	}
+
+	private float getCoord(int[] data, int vertex, int coord) {
+		return Float.intBitsToFloat(data[vertex + coord]);
+	}
+
+	private int getSide(int[] data, int quad) {
+		final int v0 = quad;
+		final int v1 = quad + intsPerVertex;
+		final int v2 = quad + 2 * intsPerVertex;
+
+		final float ax = getCoord(data, v1, 0) - getCoord(data, v0, 0);
+		final float ay = getCoord(data, v1, 1) - getCoord(data, v0, 1);
+		final float az = getCoord(data, v1, 2) - getCoord(data, v0, 2);
+
+		final float bx = getCoord(data, v2, 0) - getCoord(data, v1, 0);
+		final float by = getCoord(data, v2, 1) - getCoord(data, v1, 1);
+		final float bz = getCoord(data, v2, 2) - getCoord(data, v1, 2);
+
+		final float nx = ay * bz - az * by;
+		final float ny = az * bx - ax * bz;
+		final float nz = ax * by - ay * bx;
+
+		final boolean alongX = ny == 0 && nz == 0 && nx != 0;
+		final boolean alongY = nx == 0 && nz == 0 && ny != 0;
+		final boolean alongZ = nx == 0 && ny == 0 && nz != 0;
+		if (!alongX && !alongY && !alongZ) return NEVER_CULLED;
+
+		return EnumFacing.getFacingFromVector(nx, ny, nz).ordinal();
+	}
+
+	private int getCullSide(int[] data, int quad) {
+		final int side = getSide(data, quad);
+		if (side == NEVER_CULLED) return NEVER_CULLED;
+
+		// face plane of cell: 0 for negative directions, 1 for positive ones
+		final EnumFacing facing = EnumFacing.VALUES[side];
+		final int axis = facing.getAxis().ordinal();
+		final float boundary = facing.getAxisDirection() == EnumFacing.AxisDirection.POSITIVE? 1 : 0;
+
+		for (int i = 0; i < VERTICES_PER_QUAD; i++)
+			if (Math.abs(getCoord(data, quad + i * intsPerVertex, axis) - boundary) > BOUNDARY_EPSILON) return NEVER_CULLED;
+
+		return side;
+	}
+
+	private void addQuads(TIntArrayList output, int[] quads, BlockPos pos, float scale) {
+		final int start = output.size();
+		output.add(quads);
+
+		final float x = pos.getX();
+		final float y = pos.getY();
+		final float z = pos.getZ();
+		for (int vertex = start; vertex < output.size(); vertex += intsPerVertex) {
+			output.set(vertex + 0, Float.floatToRawIntBits(Float.intBitsToFloat(output.get(vertex + 0)) * scale + x));
+			output.set(vertex + 1, Float.floatToRawIntBits(Float.intBitsToFloat(output.get(vertex + 1)) * scale + y));
+			output.set(vertex + 2, Float.floatToRawIntBits(Float.intBitsToFloat(output.get(vertex + 2)) * scale + z));
+		}
+	}
+
+	public Mesh build(CoordShape shape, float scale) {
+		final long start = System.nanoTime();
+
+		final List<BlockPos> coords = shape.getCoords();
+		final boolean fullScale = scale == 1.0f;
+		final TLongSet occupied = new TLongHashSet(coords.size());
+		if (fullScale && hasCullableFaces()) {
+			for (BlockPos coord : coords)
+				occupied.add(coord.toLong());
+		}
+
+		final TLongObjectMap<TIntArrayList> sectionsData = new TLongObjectHashMap<TIntArrayList>();
+		for (BlockPos coord : coords) {
+			final long sectionKey = new BlockPos(coord.getX() >> SECTION_SIZE_BITS, coord.getY() >> SECTION_SIZE_BITS, coord.getZ() >> SECTION_SIZE_BITS).toLong();
+			TIntArrayList sectionData = sectionsData.get(sectionKey);
+			if (sectionData == null) {
+				sectionData = new TIntArrayList();
+				sectionsData.put(sectionKey, sectionData);
+			}
+
+			for (EnumFacing side : EnumFacing.VALUES) {
+				final int[] quads = quadsBySide[side.ordinal()];
+				// scaled markers no longer reach cell boundary
+				if (quads.length > 0 && (!fullScale || !occupied.contains(coord.offset(side).toLong())))
+					addQuads(sectionData, quads, coord, scale);
+			}
+
+			final int[] neverCulled = quadsBySide[NEVER_CULLED];
+			if (neverCulled.length > 0) addQuads(sectionData, neverCulled, coord, scale);
+		}
+
+		final ImmutableList.Builder<Section> sections = ImmutableList.builder();
+		int vertexCount = 0;
+		for (long sectionKey : sectionsData.keys()) {
+			final int[] vertexData = sectionsData.get(sectionKey).toArray();
+			if (vertexData.length == 0) continue;
+
+			final BlockPos section = BlockPos.fromLong(sectionKey);
+			final BlockPos origin = new BlockPos(section.getX() << SECTION_SIZE_BITS, section.getY() << SECTION_SIZE_BITS, section.getZ() << SECTION_SIZE_BITS);
+			final int sectionVertexCount = vertexData.length / intsPerVertex;
+			sections.add(new Section(origin, vertexData, sectionVertexCount));
+			vertexCount += sectionVertexCount;
+		}
+
+		return new Mesh(sections.build(), vertexCount, System.nanoTime() - start);
+	}
+}
@@ -4,8 +4,6 @@ import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.SourceDataLine;
-import net.minecraft.client.Minecraft;
-import net.minecraft.util.SoundCategory;
 import openmods.Log;
 
 public class BeepGenerator {
@@ -18,29 +16,30 @@ public class BeepGenerator {
 
 	private static final int BYTES_PER_BUFFER = BYTES_PER_SAMPLE * SAMPLES_PER_BUFFER;
 
-	private static final double BUFFER_DURATION = (double)SAMPLES_PER_BUFFER / SAMPLE_RATE;
-
 	private static final double FREQUENCY_MAX_CHANGE_PER_BUFFER_DURATION = 50.0;
 
 	private final byte[] scratchBuffer = new byte[BYTES_PER_BUFFER];
 
+	private final short[] scratchSamples = new short[SAMPLES_PER_BUFFER];
+
 	private static final byte[] ZERO_BUFFER = new byte[BYTES_PER_BUFFER];
 
+	private final VarioSynth synth = new VarioSynth(SAMPLE_RATE);
+
 	private short volume = 2560;
 
-	private double wavePhase;
-	private int beepPhase;
+	// updated from game thread, since game settings are not thread safe
+	private volatile float masterSoundLevel = 1.0f;
 
 	private double toneFrequency;
 	private double targetToneFrequency;
 	private double beepFrequency;
-	private int samplesPerBeep;
 
 	private class WriterThread extends Thread {
 
 		private final SourceDataLine line;
 
-		private boolean running = true;
+		private volatile boolean running = true;
 
 		public WriterThread(SourceDataLine line) {
 			this.line = line;
@@ -53,18 +52,9 @@ public class BeepGenerator {
 			line.start();
 
 			try {
-				while (running) {
-					final int available = line.available();
-
-					if (available >= SAMPLES_PER_BUFFER)
-						writeSample(line);
-
-					try {
-						Thread.sleep(100); // has to be lower than SAMPLES_PER_BUFFER / SAMPLE_RATE
-					} catch (InterruptedException e) {
-						running = false;
-					}
-				}
+				// write blocks until line has space for whole buffer
+				while (running)
+					writeSample(line);
 			} finally {
 				running = false;
 				line.close();
@@ -83,14 +73,14 @@ public class BeepGenerator {
 	private WriterThread writerThread;
 
 	public synchronized void start() {
-		wavePhase = 0;
-		beepPhase = 0;
+		synth.reset();
 
 		if (!isRunning()) {
 			final AudioFormat af = new AudioFormat(SAMPLE_RATE, 8 * BYTES_PER_SAMPLE, 1, true, true);
 			try {
 				SourceDataLine line = AudioSystem.getSourceDataLine(af);
-				line.open(af, SAMPLE_RATE);
+				// two buffers: one playing, one waiting, so tone changes are heard quickly
+				line.open(af, 2 * BYTES_PER_BUFFER);
 				writerThread = new WriterThread(line);
 				writerThread.start();
 			} catch (LineUnavailableException e) {
@@ -137,62 +127,15 @@ public class BeepGenerator {
 		if (f0 == 0.0 && f1 == 0.0)
 			return ZERO_BUFFER;
 
-		final float masterSoundLevel = Minecraft.getMinecraft().gameSettings.getSoundLevel(SoundCategory.MASTER);
+		final float masterSoundLevel = this.masterSoundLevel;
 
 		if (masterSoundLevel == 0)
 			return ZERO_BUFFER;
 
 		final float amplitude = Math.max(volume * masterSoundLevel, 2);
 
-		final double sweepDuration = BUFFER_DURATION;
-
-		// see 'chirp' on wiki for explanation of constants
-		final double k = (f1 - f0) / sweepDuration;
-
-		int sampleCount = 0;
-
-		if (samplesPerBeep == 0) {
-			for (int i = 0; i < BYTES_PER_BUFFER; i += BYTES_PER_SAMPLE, sampleCount++) {
-				final short v = (short)calculateSample(amplitude, wavePhase, f0, k, sampleToRealTime(sampleCount));
-				writeShortSample(scratchBuffer, i, v);
-			}
-		} else {
-			int beepSample = beepPhase;
-			for (int i = 0; i < BYTES_PER_BUFFER; i += BYTES_PER_SAMPLE, sampleCount++) {
-				if (beepSample < samplesPerBeep) {
-					final short v = (short)calculateSample(amplitude, wavePhase, f0, k, sampleToRealTime(sampleCount));
-					writeShortSample(scratchBuffer, i, v);
-				} else {
-					scratchBuffer[i] = 0;
-					scratchBuffer[i + 1] = 0;
-				}
-
-				if (beepSample++ >= 2 * samplesPerBeep)
-					beepSample = 0;
-			}
-			beepPhase = beepSample;
-		}
-
-		wavePhase = phase(wavePhase, f0, k, sampleToRealTime(sampleCount)) % (2 * Math.PI);
+		synth.render(scratchBuffer, scratchSamples, SAMPLES_PER_BUFFER, f0, f1, amplitude);
 		return scratchBuffer;
-
-	}
-
-	private static void writeShortSample(byte[] buf, int i, final short v) {
-		buf[i] = (byte)(v >> 8);
-		buf[i + 1] = (byte)(v);
-	}
-
-	private static double sampleToRealTime(int sampleCount) {
-		return (double)sampleCount / SAMPLE_RATE;
-	}
-
-	private static double calculateSample(float amplitude, double phase0, double f0, double k, double t) {
-		return (short)(amplitude * Math.sin(phase(phase0, f0, k, t)));
-	}
-
-	private static double phase(double phase0, double f0, double k, double t) {
-		return phase0 + 2.0 * Math.PI * (f0 + k / 2.0 * t) * t;
 	}
 
 	public short getVolume() {
@@ -203,6 +146,10 @@ public class BeepGenerator {
 		this.volume = volume;
 	}
 
+	public void setMasterSoundLevel(float masterSoundLevel) {
+		this.masterSoundLevel = masterSoundLevel;
+	}
+
 	public double getToneFrequency() {
 		return toneFrequency;
 	}
@@ -221,12 +168,7 @@ public class BeepGenerator {
 
 	public void setBeepFrequency(double beepFrequency) {
 		this.beepFrequency = beepFrequency;
-
-		if (beepFrequency == 0) {
-			samplesPerBeep = 0;
-		} else {
-			samplesPerBeep = (int)(SAMPLE_RATE / beepFrequency);
-		}
+		synth.setBeepFrequency(beepFrequency);
 	}
 
 }
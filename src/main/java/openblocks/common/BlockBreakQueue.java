@@ -0,0 +1,58 @@
+package openblocks.common;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import openmods.fakeplayer.BreakBlockAction;
+import openmods.fakeplayer.FakePlayerPool;
+import openmods.fakeplayer.FakePlayerPool.PlayerUser;
+import openmods.fakeplayer.OpenModsFakePlayer;
+
+/**
+ * Collects block breaks requested during world tick and executes them at the end of tick, with single fake player.
+ * Block is only broken if it's state didn't change since request.
+ */
+public class BlockBreakQueue {
+
+	public static final BlockBreakQueue instance = new BlockBreakQueue();
+
+	private final Map<World, Map<BlockPos, IBlockState>> pendingBreaks = new MapMaker().weakKeys().makeMap();
+
+	public void queueBreak(WorldServer world, BlockPos pos) {
+		Map<BlockPos, IBlockState> worldBreaks = pendingBreaks.get(world);
+		if (worldBreaks == null) {
+			worldBreaks = Maps.newLinkedHashMap();
+			pendingBreaks.put(world, worldBreaks);
+		}
+
+		if (!worldBreaks.containsKey(pos)) worldBreaks.put(pos, world.getBlockState(pos));
+	}
+
+	private static void executeBreaks(final WorldServer world, final Map<BlockPos, IBlockState> breaks) {
+		FakePlayerPool.instance.executeOnPlayer(world, new PlayerUser() {
+			@Override
+			public void usePlayer(OpenModsFakePlayer fakePlayer) {
+				for (Map.Entry<BlockPos, IBlockState> e : breaks.entrySet()) {
+					final BlockPos pos = e.getKey();
+					if (world.isBlockLoaded(pos) && world.getBlockState(pos) == e.getValue())
+						new BreakBlockAction(world, pos).setStackToUse(null).usePlayer(fakePlayer);
+				}
+			}
+		});
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase == Phase.END && evt.world instanceof WorldServer) {
+			final Map<BlockPos, IBlockState> breaks = pendingBreaks.remove(evt.world);
+			if (breaks != null && !breaks.isEmpty()) executeBreaks((WorldServer)evt.world, breaks);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package openblocks.common;
+
+import com.google.common.collect.MapMaker;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Counts block type changes per chunk on server worlds. Consumers can cache results of area scans and compare counters to find if they are stale.
+ * Changes of state within same block (like crop growth) are not counted.
+ * Registered only when at least one consumer is enabled, so consumers must check {@link #isTracked(World)} before trusting counters.
+ */
+public class BlockChangeTracker {
+
+	public static final BlockChangeTracker instance = new BlockChangeTracker();
+
+	private static long chunkKey(int chunkX, int chunkZ) {
+		return ((long)chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	private static class WorldListener implements IWorldEventListener {
+
+		private final TLongIntMap changes = new TLongIntHashMap();
+
+		// generation of world: counter of new chunk entry starts here, so chunk reloaded after unload never repeats its old value
+		private int totalChanges;
+
+		@Override
+		public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+			if (oldState.getBlock() != newState.getBlock()) {
+				totalChanges++;
+				final long key = chunkKey(pos.getX() >> 4, pos.getZ() >> 4);
+				if (!changes.increment(key)) changes.put(key, totalChanges);
+			}
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent sound, SoundCategory category, double x, double y, double z, float volume, float pitch) {}
+
+		@Override
+		public void playRecord(SoundEvent sound, BlockPos pos) {}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void onEntityAdded(Entity entity) {}
+
+		@Override
+		public void onEntityRemoved(Entity entity) {}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos pos, int data) {}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+	}
+
+	private final Map<World, WorldListener> listeners = new MapMaker().weakKeys().makeMap();
+
+	@SubscribeEvent
+	public void onWorldLoad(WorldEvent.Load evt) {
+		final World world = evt.getWorld();
+		if (!world.isRemote && !listeners.containsKey(world)) {
+			final WorldListener listener = new WorldListener();
+			world.addEventListener(listener);
+			listeners.put(world, listener);
+		}
+	}
+
+	@SubscribeEvent
+	public void onChunkUnload(ChunkEvent.Unload evt) {
+		final WorldListener listener = listeners.get(evt.getWorld());
+		if (listener != null) {
+			final Chunk chunk = evt.getChunk();
+			listener.changes.remove(chunkKey(chunk.xPosition, chunk.zPosition));
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		final World world = evt.getWorld();
+		final WorldListener listener = listeners.remove(world);
+		if (listener != null) world.removeEventListener(listener);
+	}
+
+	public boolean isTracked(World world) {
+		return listeners.containsKey(world);
+	}
+
+	// counters are mixed before summing, so changes in one chunk can't be cancelled out by unload of other
+	private static int mix(int value) {
+		value ^= value >>> 16;
+		value *= 0x85ebca6b;
+		value ^= value >>> 13;
+		value *= 0xc2b2ae35;
+		value ^= value >>> 16;
+		return value;
+	}
+
+	/**
+	 * @return checksum of change counters for all chunks intersecting given area. Value is meaningful only when compared to previous result for same area.
+	 */
+	public int getChangeCount(World world, int minX, int minZ, int maxX, int maxZ) {
+		final WorldListener listener = listeners.get(world);
+		if (listener == null) return 0;
+
+		int result = 0;
+		for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++)
+			for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++)
+				result += mix(listener.changes.get(chunkKey(chunkX, chunkZ)));
+
+		return result;
+	}
+}
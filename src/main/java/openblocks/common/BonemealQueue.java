@@ -0,0 +1,62 @@
+package openblocks.common;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemDye;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import openmods.fakeplayer.FakePlayerPool;
+import openmods.fakeplayer.FakePlayerPool.PlayerUser;
+import openmods.fakeplayer.OpenModsFakePlayer;
+
+/**
+ * Collects bonemeal applications requested during world tick and executes them at the end of tick, with single fake player.
+ */
+public class BonemealQueue {
+
+	public static final BonemealQueue instance = new BonemealQueue();
+
+	private final Map<World, Set<BlockPos>> pendingTargets = new MapMaker().weakKeys().makeMap();
+
+	public void queueFertilize(WorldServer world, BlockPos pos) {
+		Set<BlockPos> worldTargets = pendingTargets.get(world);
+		if (worldTargets == null) {
+			worldTargets = Sets.newLinkedHashSet();
+			pendingTargets.put(world, worldTargets);
+		}
+
+		worldTargets.add(pos);
+	}
+
+	private static void executeFertilize(final WorldServer world, final Set<BlockPos> targets) {
+		FakePlayerPool.instance.executeOnPlayer(world, new PlayerUser() {
+			@Override
+			public void usePlayer(OpenModsFakePlayer fakePlayer) {
+				// applyBonemeal only decreases stack size, so single stack can be reused
+				final ItemStack bonemeal = new ItemStack(Items.DYE, 1, 15);
+				for (BlockPos pos : targets) {
+					if (world.isBlockLoaded(pos)) {
+						bonemeal.stackSize = 1;
+						ItemDye.applyBonemeal(bonemeal, world, pos, fakePlayer);
+					}
+				}
+			}
+		});
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase == Phase.END && evt.world instanceof WorldServer) {
+			final Set<BlockPos> targets = pendingTargets.remove(evt.world);
+			if (targets != null && !targets.isEmpty()) executeFertilize((WorldServer)evt.world, targets);
+		}
+	}
+}
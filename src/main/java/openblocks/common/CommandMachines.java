@@ -0,0 +1,67 @@
+package openblocks.common;
+
+import static openmods.utils.CommandUtils.respond;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommand;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+
+public class CommandMachines implements ICommand {
+
+	private static final String NAME = "ob_machines";
+
+	@Override
+	public int compareTo(ICommand o) {
+		return NAME.compareTo(o.getCommandName());
+	}
+
+	@Override
+	public String getCommandName() {
+		return NAME;
+	}
+
+	@Override
+	public String getCommandUsage(ICommandSender icommandsender) {
+		return NAME;
+	}
+
+	@Override
+	public List<String> getCommandAliases() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] params) throws CommandException {
+		final Map<Integer, MachineState.Counters> counters = MachineState.getCounters();
+		if (counters.isEmpty()) {
+			respond(sender, "openblocks.misc.command.machines_none");
+			return;
+		}
+
+		for (Map.Entry<Integer, MachineState.Counters> e : counters.entrySet()) {
+			final MachineState.Counters dimCounters = e.getValue();
+			respond(sender, "openblocks.misc.command.machines_dimension", e.getKey(), dimCounters.awake, dimCounters.sleeping);
+		}
+	}
+
+	@Override
+	public boolean checkPermission(MinecraftServer server, ICommandSender sender) {
+		return sender.canCommandSenderUseCommand(4, NAME); // OP
+	}
+
+	@Override
+	public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] params, BlockPos pos) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public boolean isUsernameIndex(String[] astring, int i) {
+		return false;
+	}
+
+}
@@ -0,0 +1,94 @@
+package openblocks.common;
+
+import static openmods.utils.CommandUtils.error;
+import static openmods.utils.CommandUtils.filterPrefixes;
+import static openmods.utils.CommandUtils.respond;
+
+import com.google.common.collect.Lists;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommand;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.SyntaxErrorException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import openmods.Log;
+
+public class CommandProfile implements ICommand {
+
+	private static final String COMMAND_START = "start";
+
+	private static final String COMMAND_STOP = "stop";
+
+	private static final String COMMAND_DUMP = "dump";
+
+	private static final String NAME = "ob_profile";
+
+	private static final int DUMP_LIMIT = 50;
+
+	private static final List<String> SUB_COMMANDS = Lists.newArrayList(COMMAND_START, COMMAND_STOP, COMMAND_DUMP);
+
+	@Override
+	public int compareTo(ICommand o) {
+		return NAME.compareTo(o.getCommandName());
+	}
+
+	@Override
+	public String getCommandName() {
+		return NAME;
+	}
+
+	@Override
+	public String getCommandUsage(ICommandSender icommandsender) {
+		return NAME + " start|stop|dump";
+	}
+
+	@Override
+	public List<String> getCommandAliases() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+		if (args.length != 1) throw new SyntaxErrorException();
+
+		final String subCommand = args[0];
+		final TickProfiler profiler = TickProfiler.instance;
+
+		if (subCommand.equalsIgnoreCase(COMMAND_START)) {
+			profiler.start();
+			respond(sender, "openblocks.misc.command.profile_started");
+		} else if (subCommand.equalsIgnoreCase(COMMAND_STOP)) {
+			profiler.stop();
+			respond(sender, "openblocks.misc.command.profile_stopped");
+		} else if (subCommand.equalsIgnoreCase(COMMAND_DUMP)) {
+			final File worldDir = server.worldServerForDimension(0).getSaveHandler().getWorldDirectory();
+			try {
+				final File output = profiler.dump(worldDir, DUMP_LIMIT);
+				respond(sender, "openblocks.misc.command.profile_dumped", output.getAbsolutePath());
+			} catch (Exception e) {
+				Log.warn(e, "Failed to dump profiler data");
+				throw error("openblocks.misc.command.profile_dump_failed");
+			}
+		} else throw new SyntaxErrorException();
+	}
+
+	@Override
+	public boolean checkPermission(MinecraftServer server, ICommandSender sender) {
+		return sender.canCommandSenderUseCommand(4, NAME); // OP
+	}
+
+	@Override
+	public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] args, BlockPos pos) {
+		if (args.length == 1) return filterPrefixes(args[0], SUB_COMMANDS);
+		return Collections.emptyList();
+	}
+
+	@Override
+	public boolean isUsernameIndex(String[] astring, int i) {
+		return false;
+	}
+
+}
@@ -0,0 +1,154 @@
+package openblocks.common;
+
+import java.util.concurrent.Callable;
+import javax.annotation.Nullable;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityInject;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import openblocks.OpenBlocks;
+import openblocks.common.item.ItemImaginationGlasses;
+import openblocks.common.tileentity.TileEntityImaginary.Property;
+import openmods.OpenMods;
+
+/**
+ * Per-player summary of what imaginary blocks player can see, select or touch. Recalculated (from worn glasses) at most once per tick.
+ *
+ * For every property there is bit mask with bit for every combination of block kind and inversion, so checks for single block don't touch any stacks.
+ */
+public class ImaginationProfile {
+
+	private static final int KIND_PENCIL = 0;
+
+	private static final int KIND_MATCHING_CRAYON = 1;
+
+	private static final int KIND_OTHER_CRAYON = 2;
+
+	private static final int KIND_COUNT = 3;
+
+	private static final Property[] PROPERTIES = Property.values();
+
+	private final int[] masks = new int[PROPERTIES.length];
+
+	private int glassesColor;
+
+	private long lastUpdate = Long.MIN_VALUE;
+
+	private static int bit(int kind, boolean isInverted) {
+		return 1 << (2 * kind + (isInverted? 1 : 0));
+	}
+
+	private static boolean evaluate(Property property, @Nullable ItemImaginationGlasses glasses, boolean isSpectator, int kind, boolean isInverted) {
+		if (property == Property.VISIBLE && isSpectator) return true;
+
+		final boolean isPencil = kind == KIND_PENCIL;
+		if (property == Property.SOLID && isPencil) return true;
+
+		if (glasses == null) return isInverted;
+		return glasses.type.checkBlock(property, isPencil, kind == KIND_MATCHING_CRAYON, isInverted);
+	}
+
+	private void update(EntityPlayer player) {
+		final ItemStack helmet = player.inventory.armorItemInSlot(3);
+		final Item helmetItem = helmet != null? helmet.getItem() : null;
+
+		final ItemImaginationGlasses glasses;
+		if (helmetItem instanceof ItemImaginationGlasses) {
+			glasses = (ItemImaginationGlasses)helmetItem;
+			glassesColor = ItemImaginationGlasses.getGlassesColor(helmet);
+		} else {
+			glasses = null;
+			glassesColor = 0;
+		}
+
+		final boolean isSpectator = player.isSpectator();
+
+		for (Property property : PROPERTIES) {
+			int mask = 0;
+			for (int kind = 0; kind < KIND_COUNT; kind++) {
+				if (evaluate(property, glasses, isSpectator, kind, false)) mask |= bit(kind, false);
+				if (evaluate(property, glasses, isSpectator, kind, true)) mask |= bit(kind, true);
+			}
+			masks[property.ordinal()] = mask;
+		}
+	}
+
+	public boolean is(Property property, boolean isPencil, int color, boolean isInverted) {
+		final int kind = isPencil? KIND_PENCIL : (color == glassesColor? KIND_MATCHING_CRAYON : KIND_OTHER_CRAYON);
+		return (masks[property.ordinal()] & bit(kind, isInverted)) != 0;
+	}
+
+	private static final ResourceLocation CAPABILITY_KEY = OpenBlocks.location("imagination_profile");
+
+	@CapabilityInject(ImaginationProfile.class)
+	private static final Capability<ImaginationProfile> PROFILE_CAPABILITY = null;
+
+	private static class CapabilityInjector {
+
+		@SubscribeEvent
+		public void attachCapability(AttachCapabilitiesEvent<Entity> evt) {
+			if (!(evt.getObject() instanceof EntityPlayer)) return;
+
+			evt.addCapability(CAPABILITY_KEY, new ICapabilityProvider() {
+
+				private final ImaginationProfile profile = new ImaginationProfile();
+
+				@Override
+				public boolean hasCapability(Capability<?> capability, @Nullable EnumFacing facing) {
+					return capability == PROFILE_CAPABILITY;
+				}
+
+				@Override
+				@SuppressWarnings("unchecked")
+				public <T> T getCapability(Capability<T> capability, @Nullable EnumFacing facing) {
+					if (capability == PROFILE_CAPABILITY) return (T)profile;
+					return null;
+				}
+			});
+		}
+	}
+
+	public static void registerCapability() {
+		CapabilityManager.INSTANCE.register(ImaginationProfile.class, new Capability.IStorage<ImaginationProfile>() {
+			@Override
+			public NBTBase writeNBT(Capability<ImaginationProfile> capability, ImaginationProfile instance, EnumFacing side) {
+				return null;
+			}
+
+			@Override
+			public void readNBT(Capability<ImaginationProfile> capability, ImaginationProfile instance, EnumFacing side, NBTBase nbt) {}
+
+		}, new Callable<ImaginationProfile>() {
+			@Override
+			public ImaginationProfile call() throws Exception {
+				return new ImaginationProfile();
+			}
+		});
+
+		MinecraftForge.EVENT_BUS.register(new CapabilityInjector());
+	}
+
+	public static ImaginationProfile getProfile(EntityPlayer player) {
+		ImaginationProfile profile = PROFILE_CAPABILITY != null? player.getCapability(PROFILE_CAPABILITY, EnumFacing.UP) : null;
+		// should not happen, but capabilities are attached only to players created after registration
+		if (profile == null) profile = new ImaginationProfile();
+
+		final long ticks = OpenMods.proxy.getTicks(player.worldObj);
+		if (profile.lastUpdate != ticks) {
+			profile.update(player);
+			profile.lastUpdate = ticks;
+		}
+
+		return profile;
+	}
+}
@@ -1,9 +1,10 @@
 package openblocks.common;
 
 import com.google.common.base.Function;
+import java.util.Arrays;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraftforge.fluids.FluidStack;
 import openblocks.Config;
-import openmods.utils.EnchantmentUtils;
 
 public class LiquidXpUtils {
 
@@ -18,17 +19,73 @@ public class LiquidXpUtils {
 	}
 
 	public static int getLiquidForLevel(int level) {
-		final int xp = EnchantmentUtils.getExperienceForLevel(level);
+		final int xp = getExperienceForLevel(level);
 		return xpToLiquidRatio(xp);
 	}
 
+	private static final int XP_TABLE_SIZE = 1024;
+
+	// total XP needed to reach level, indexed by level
+	private static final int[] XP_FOR_LEVEL = new int[XP_TABLE_SIZE];
+
+	static {
+		int total = 0;
+		for (int level = 0; level < XP_TABLE_SIZE; level++) {
+			XP_FOR_LEVEL[level] = total;
+			total += xpBarCap(level);
+		}
+	}
+
+	// same as EntityPlayer.xpBarCap, but for any level
+	public static int xpBarCap(int level) {
+		if (level >= 30) return 112 + (level - 30) * 9;
+		if (level >= 15) return 37 + (level - 15) * 5;
+		return 7 + level * 2;
+	}
+
+	public static int getExperienceForLevel(int level) {
+		if (level <= 0) return 0;
+		if (level < XP_TABLE_SIZE) return XP_FOR_LEVEL[level];
+
+		// closed form of table values, valid above level 30
+		final long l = level;
+		return (int)Math.min((9 * l * l - 325 * l + 4440) / 2, Integer.MAX_VALUE);
+	}
+
+	public static int getLevelForExperience(int experience) {
+		if (experience <= 0) return 0;
+
+		if (experience < XP_FOR_LEVEL[XP_TABLE_SIZE - 1]) {
+			final int index = Arrays.binarySearch(XP_FOR_LEVEL, experience);
+			// on miss: highest level with requirement below experience
+			return index >= 0? index : -index - 2;
+		}
+
+		int level = XP_TABLE_SIZE - 1;
+		while (getExperienceForLevel(level + 1) <= experience)
+			level++;
+		return level;
+	}
+
+	public static int getPlayerXP(EntityPlayer player) {
+		return getExperienceForLevel(player.experienceLevel) + (int)(player.experience * player.xpBarCap());
+	}
+
+	public static void addPlayerXP(EntityPlayer player, int amount) {
+		final int experience = Math.max(getPlayerXP(player) + amount, 0);
+		player.experienceTotal = experience;
+		player.experienceLevel = getLevelForExperience(experience);
+		final int expForLevel = getExperienceForLevel(player.experienceLevel);
+		player.experience = (float)(experience - expForLevel) / (float)player.xpBarCap();
+	}
+
 	public static final Function<FluidStack, FluidStack> FLUID_TO_LEVELS = new Function<FluidStack, FluidStack>() {
 		@Override
 		public FluidStack apply(FluidStack input) {
 			if (input == null) return null;
 			// display levels instead of actual xp fluid level
 			final FluidStack result = input.copy();
-			result.amount = EnchantmentUtils.getLevelForExperience(liquidToXpRatio(input.amount));
+			result.amount = getLevelForExperience(liquidToXpRatio(input.amount));
 			return result;
 		}
 	};
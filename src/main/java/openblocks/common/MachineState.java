@@ -0,0 +1,155 @@
+package openblocks.common;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.world.World;
+import openblocks.Config;
+import openmods.api.IInventoryCallback;
+import openmods.utils.OptionalInt;
+
+/**
+ * Sleep/wake state for machines that can go idle. Sleeping machine skips its work, except for periodic idle checks.
+ * Machine is woken by inventory changes (when registered as inventory callback), tank changes and explicit calls (neighbour changes, redstone edges).
+ *
+ * Machines still get update() call every tick, since tickable tile entities can't be safely removed from world list while it's iterated.
+ * While sleeping, it only compares tank level (pipes fill tanks without any notification) and counts down to next idle check
+ * (needed for automatic input/output, since neighbour inventories and tanks don't notify about their changes).
+ */
+public class MachineState implements IInventoryCallback {
+
+	private static final int IDLE_TICKS_BEFORE_SLEEP = 20;
+
+	public static class Counters {
+		public int awake;
+
+		public int sleeping;
+	}
+
+	private static final Map<Integer, Counters> counters = Maps.newHashMap();
+
+	public static synchronized Map<Integer, Counters> getCounters() {
+		final ImmutableMap.Builder<Integer, Counters> result = ImmutableMap.builder();
+		for (Map.Entry<Integer, Counters> e : counters.entrySet()) {
+			final Counters copy = new Counters();
+			copy.awake = e.getValue().awake;
+			copy.sleeping = e.getValue().sleeping;
+			result.put(e.getKey(), copy);
+		}
+
+		return result.build();
+	}
+
+	private static synchronized void updateCounters(int dimension, boolean sleeping, int delta) {
+		Counters dimCounters = counters.get(dimension);
+		if (dimCounters == null) {
+			dimCounters = new Counters();
+			counters.put(dimension, dimCounters);
+		}
+
+		if (sleeping) dimCounters.sleeping += delta;
+		else dimCounters.awake += delta;
+
+		// don't keep entries for dimensions that no longer have any machines (unloaded or otherwise)
+		if (dimCounters.awake == 0 && dimCounters.sleeping == 0) counters.remove(dimension);
+	}
+
+	private boolean registered;
+
+	private int dimension;
+
+	private boolean sleeping;
+
+	private boolean activity;
+
+	private int idleTicks;
+
+	private int checkCountdown;
+
+	private int trackedTankLevel;
+
+	public void register(World world) {
+		if (world.isRemote) return;
+		unregister();
+
+		dimension = world.provider.getDimension();
+		registered = true;
+		sleeping = false;
+		idleTicks = 0;
+		updateCounters(dimension, sleeping, +1);
+	}
+
+	public void unregister() {
+		if (registered) {
+			updateCounters(dimension, sleeping, -1);
+			registered = false;
+		}
+	}
+
+	private void setSleeping(boolean sleeping) {
+		if (this.sleeping != sleeping) {
+			if (registered) {
+				updateCounters(dimension, this.sleeping, -1);
+				updateCounters(dimension, sleeping, +1);
+			}
+
+			this.sleeping = sleeping;
+		}
+	}
+
+	public boolean isSleeping() {
+		return sleeping;
+	}
+
+	public void wakeUp() {
+		activity = true;
+		idleTicks = 0;
+		setSleeping(false);
+	}
+
+	@Override
+	public void onInventoryChanged(IInventory inventory, OptionalInt slotNumber) {
+		wakeUp();
+	}
+
+	/**
+	 * Wakes machine if tank level changed since last call. Tanks can be filled externally, without any notification.
+	 *
+	 * @return true if level changed
+	 */
+	public boolean trackTankLevel(int level) {
+		if (level == trackedTankLevel) return false;
+
+		trackedTankLevel = level;
+		wakeUp();
+		return true;
+	}
+
+	/**
+	 * @return true if machine should do its work in current tick
+	 */
+	public boolean shouldUpdate() {
+		if (!sleeping) return true;
+		if (--checkCountdown > 0) return false;
+
+		checkCountdown = Config.machineIdleCheckPeriod;
+		return true;
+	}
+
+	/**
+	 * Should be called after every update allowed by {@link #shouldUpdate()}
+	 *
+	 * @param busy true if machine has pending work, regardless of changes in this tick
+	 */
+	public void afterUpdate(boolean busy) {
+		if (busy || activity) {
+			activity = false;
+			idleTicks = 0;
+			setSleeping(false);
+		} else if (!sleeping && ++idleTicks >= IDLE_TICKS_BEFORE_SLEEP) {
+			checkCountdown = Config.machineIdleCheckPeriod;
+			setSleeping(true);
+		}
+	}
+}
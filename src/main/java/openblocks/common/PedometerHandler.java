@@ -3,94 +3,204 @@ package openblocks.common;
 import java.util.concurrent.Callable;
 import javax.annotation.Nullable;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityInject;
 import net.minecraftforge.common.capabilities.CapabilityManager;
-import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.capabilities.ICapabilitySerializable;
+import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import openblocks.OpenBlocks;
 import openmods.OpenMods;
 
 public class PedometerHandler {
 
+	// ticks used for current speed
+	public static final int SPEED_SAMPLES = 20;
+
 	public static class PedometerState {
 		private double totalDistance;
 
 		private long startTicks;
 
-		private Vec3d startPos;
+		private double startX;
+		private double startY;
+		private double startZ;
+
+		private int dimension;
 
-		private Vec3d prevTickPos;
+		private double prevTickX;
+		private double prevTickY;
+		private double prevTickZ;
 
 		private long prevTickTime;
 
-		private Vec3d lastCheckPos;
+		private double lastCheckX;
+		private double lastCheckY;
+		private double lastCheckZ;
 
 		private long lastCheckTime;
 
-		private PedometerData lastResult;
+		// per-tick distances and durations, for current speed
+		private final double[] sampleDistances = new double[SPEED_SAMPLES];
+		private final long[] sampleTicks = new long[SPEED_SAMPLES];
+		private int nextSample;
 
 		private boolean isRunning;
 
 		public void reset() {
 			isRunning = false;
 			totalDistance = 0;
-			lastResult = null;
-
-			lastCheckPos = null;
-			lastCheckTime = 0;
+			clearSamples();
+		}
 
-			prevTickPos = null;
-			prevTickTime = 0;
+		private void clearSamples() {
+			for (int i = 0; i < SPEED_SAMPLES; i++) {
+				sampleDistances[i] = 0;
+				sampleTicks[i] = 0;
+			}
+			nextSample = 0;
 		}
 
-		public void init(Entity entity, World world) {
-			lastCheckPos = prevTickPos = startPos = entity.getPositionVector();
-			lastCheckTime = prevTickTime = startTicks = OpenMods.proxy.getTicks(world);
+		public void init(Entity entity) {
+			lastCheckX = prevTickX = startX = entity.posX;
+			lastCheckY = prevTickY = startY = entity.posY;
+			lastCheckZ = prevTickZ = startZ = entity.posZ;
+			lastCheckTime = prevTickTime = startTicks = OpenMods.proxy.getTicks(entity.worldObj);
+			dimension = entity.dimension;
+			totalDistance = 0;
+			clearSamples();
 			isRunning = true;
 		}
 
 		public void update(Entity entity) {
-			Vec3d currentPosition = entity.getPositionVector();
-			Vec3d deltaSinceLastUpdate = currentPosition.subtract(prevTickPos);
-			prevTickPos = currentPosition;
+			final long currentTime = OpenMods.proxy.getTicks(entity.worldObj);
+			// already updated in this tick
+			if (currentTime == prevTickTime) return;
 
-			long currentTime = OpenMods.proxy.getTicks(entity.worldObj);
-			double ticksSinceLastUpdate = currentTime - prevTickTime;
-			prevTickTime = currentTime;
+			final double x = entity.posX;
+			final double y = entity.posY;
+			final double z = entity.posZ;
 
-			double distanceSinceLastTick = deltaSinceLastUpdate.lengthVector();
-			double currentSpeed = ticksSinceLastUpdate != 0? distanceSinceLastTick / ticksSinceLastUpdate : 0;
-			totalDistance += distanceSinceLastTick;
+			final long ticksSinceLastUpdate = currentTime - prevTickTime;
+			prevTickTime = currentTime;
 
-			Vec3d deltaFromStart = currentPosition.subtract(startPos);
-			long ticksFromStart = currentTime - startTicks;
+			if (entity.dimension != dimension) {
+				// distance between dimensions makes no sense, just start from new position
+				dimension = entity.dimension;
+				lastCheckX = startX = x;
+				lastCheckY = startY = y;
+				lastCheckZ = startZ = z;
+			} else {
+				final double dx = x - prevTickX;
+				final double dy = y - prevTickY;
+				final double dz = z - prevTickZ;
+				final double distanceSinceLastTick = Math.sqrt(dx * dx + dy * dy + dz * dz);
+				totalDistance += distanceSinceLastTick;
+
+				sampleDistances[nextSample] = distanceSinceLastTick;
+				sampleTicks[nextSample] = ticksSinceLastUpdate;
+				nextSample = (nextSample + 1) % SPEED_SAMPLES;
+			}
 
-			double distanceFromStart = deltaFromStart.lengthVector();
+			prevTickX = x;
+			prevTickY = y;
+			prevTickZ = z;
+		}
 
-			double distanceFromLastCheck = 0;
-			if (lastCheckPos != null) distanceFromLastCheck = currentPosition.subtract(lastCheckPos).lengthVector();
+		public boolean isRunning() {
+			return isRunning;
+		}
 
-			long timeFromLastCheck = currentTime - lastCheckTime;
+		private double currentSpeed() {
+			double distance = 0;
+			long ticks = 0;
+			for (int i = 0; i < SPEED_SAMPLES; i++) {
+				distance += sampleDistances[i];
+				ticks += sampleTicks[i];
+			}
 
-			lastResult = new PedometerData(startPos, ticksFromStart, totalDistance, distanceFromStart, distanceFromLastCheck, timeFromLastCheck, currentSpeed);
+			return ticks != 0? distance / ticks : 0;
 		}
 
-		public boolean isRunning() {
-			return isRunning;
+		private static double distance(double x1, double y1, double z1, double x2, double y2, double z2) {
+			final double dx = x1 - x2;
+			final double dy = y1 - y2;
+			final double dz = z1 - z2;
+			return Math.sqrt(dx * dx + dy * dy + dz * dz);
 		}
 
 		public PedometerData getData() {
-			lastCheckPos = prevTickPos;
+			if (!isRunning) return null;
+
+			final PedometerData result = new PedometerData(new Vec3d(startX, startY, startZ),
+					prevTickTime - startTicks,
+					totalDistance,
+					distance(prevTickX, prevTickY, prevTickZ, startX, startY, startZ),
+					distance(prevTickX, prevTickY, prevTickZ, lastCheckX, lastCheckY, lastCheckZ),
+					prevTickTime - lastCheckTime,
+					currentSpeed());
+
+			lastCheckX = prevTickX;
+			lastCheckY = prevTickY;
+			lastCheckZ = prevTickZ;
 			lastCheckTime = prevTickTime;
-			return lastResult;
+			return result;
+		}
+
+		public NBTTagCompound writeToNBT() {
+			final NBTTagCompound tag = new NBTTagCompound();
+			tag.setBoolean("Running", isRunning);
+			if (isRunning) {
+				tag.setDouble("TotalDistance", totalDistance);
+				tag.setLong("StartTicks", startTicks);
+				tag.setDouble("StartX", startX);
+				tag.setDouble("StartY", startY);
+				tag.setDouble("StartZ", startZ);
+				tag.setInteger("Dimension", dimension);
+				tag.setDouble("LastCheckX", lastCheckX);
+				tag.setDouble("LastCheckY", lastCheckY);
+				tag.setDouble("LastCheckZ", lastCheckZ);
+				tag.setLong("LastCheckTime", lastCheckTime);
+				tag.setDouble("PrevTickX", prevTickX);
+				tag.setDouble("PrevTickY", prevTickY);
+				tag.setDouble("PrevTickZ", prevTickZ);
+				tag.setLong("PrevTickTime", prevTickTime);
+			}
+			return tag;
+		}
+
+		public void readFromNBT(NBTTagCompound tag) {
+			reset();
+			if (tag.getBoolean("Running")) {
+				totalDistance = tag.getDouble("TotalDistance");
+				startTicks = tag.getLong("StartTicks");
+				startX = tag.getDouble("StartX");
+				startY = tag.getDouble("StartY");
+				startZ = tag.getDouble("StartZ");
+				dimension = tag.getInteger("Dimension");
+				lastCheckX = tag.getDouble("LastCheckX");
+				lastCheckY = tag.getDouble("LastCheckY");
+				lastCheckZ = tag.getDouble("LastCheckZ");
+				lastCheckTime = tag.getLong("LastCheckTime");
+				prevTickX = tag.getDouble("PrevTickX");
+				prevTickY = tag.getDouble("PrevTickY");
+				prevTickZ = tag.getDouble("PrevTickZ");
+				prevTickTime = tag.getLong("PrevTickTime");
+				isRunning = true;
+			}
 		}
 	}
 
@@ -145,9 +255,11 @@ public class PedometerHandler {
 
 		@SubscribeEvent
 		public void attachCapability(AttachCapabilitiesEvent<Entity> evt) {
-			evt.addCapability(CAPABILITY_KEY, new ICapabilityProvider() {
+			if (!(evt.getObject() instanceof EntityPlayer)) return;
 
-				private PedometerState state;
+			evt.addCapability(CAPABILITY_KEY, new ICapabilitySerializable<NBTTagCompound>() {
+
+				private final PedometerState state = new PedometerState();
 
 				@Override
 				public boolean hasCapability(Capability<?> capability, @Nullable EnumFacing facing) {
@@ -157,28 +269,68 @@ public class PedometerHandler {
 				@Override
 				@SuppressWarnings("unchecked")
 				public <T> T getCapability(Capability<T> capability, @Nullable EnumFacing facing) {
-					if (capability == PEDOMETER_CAPABILITY) {
-						if (state == null)
-							state = new PedometerState();
+					if (capability == PEDOMETER_CAPABILITY) return (T)state;
+					return null;
+				}
 
-						return (T)state;
-					}
+				@Override
+				public NBTTagCompound serializeNBT() {
+					return state.writeToNBT();
+				}
 
-					return null;
+				@Override
+				public void deserializeNBT(NBTTagCompound nbt) {
+					state.readFromNBT(nbt);
 				}
 			});
 		}
+
+		@SubscribeEvent
+		public void onPlayerClone(PlayerEvent.Clone evt) {
+			if (evt.isWasDeath()) return;
+
+			final PedometerState oldState = getProperty(evt.getOriginal());
+			final PedometerState newState = getProperty(evt.getEntityPlayer());
+			if (oldState != null && newState != null) newState.readFromNBT(oldState.writeToNBT());
+		}
+
+		@SubscribeEvent
+		public void onPlayerTick(TickEvent.PlayerTickEvent evt) {
+			if (evt.phase != Phase.END) return;
+
+			final EntityPlayer player = evt.player;
+			if (player.worldObj.isRemote) return;
+
+			final PedometerState state = getProperty(player);
+			if (state != null && state.isRunning() && hasPedometerInHotbar(player)) state.update(player);
+		}
+	}
+
+	private static boolean hasPedometerInHotbar(EntityPlayer player) {
+		final Item pedometer = OpenBlocks.Items.pedometer;
+		final ItemStack[] inventory = player.inventory.mainInventory;
+		for (int i = 0; i < 9; i++) {
+			final ItemStack stack = inventory[i];
+			if (stack != null && stack.getItem() == pedometer) return true;
+		}
+
+		for (ItemStack stack : player.inventory.offHandInventory)
+			if (stack != null && stack.getItem() == pedometer) return true;
+
+		return false;
 	}
 
 	public static void registerCapability() {
 		CapabilityManager.INSTANCE.register(PedometerState.class, new Capability.IStorage<PedometerState>() {
 			@Override
 			public NBTBase writeNBT(Capability<PedometerState> capability, PedometerState instance, EnumFacing side) {
-				return null;
+				return instance.writeToNBT();
 			}
 
 			@Override
-			public void readNBT(Capability<PedometerState> capability, PedometerState instance, EnumFacing side, NBTBase nbt) {}
+			public void readNBT(Capability<PedometerState> capability, PedometerState instance, EnumFacing side, NBTBase nbt) {
+				if (nbt.getId() == Constants.NBT.TAG_COMPOUND) instance.readFromNBT((NBTTagCompound)nbt);
+			}
 
 		}, new Callable<PedometerState>() {
 			@Override
@@ -190,6 +342,7 @@ public class PedometerHandler {
 		MinecraftForge.EVENT_BUS.register(new CapabilityInjector());
 	}
 
+	@Nullable
 	public static PedometerState getProperty(Entity entity) {
 		return entity.getCapability(PEDOMETER_CAPABILITY, EnumFacing.UP);
 	}
@@ -3,13 +3,17 @@ package openblocks.common;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
 import com.mojang.authlib.GameProfile;
 import java.io.File;
-import java.lang.ref.WeakReference;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.item.EntityItem;
@@ -21,20 +25,26 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.MutableBlockPos;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.event.entity.player.PlayerDropsEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.ASMEventHandler;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.IEventListener;
 import net.minecraftforge.fml.common.eventhandler.ListenerList;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.relauncher.ReflectionHelper;
 import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.ItemHandlerHelper;
@@ -53,18 +63,42 @@ import org.apache.logging.log4j.Level;
 
 public class PlayerDeathHandler {
 
-	private static final Comparator<BlockPos> SEARCH_COMPARATOR = new Comparator<BlockPos>() {
+	private static final int OFFSET_BITS = 10;
 
-		private int coordSum(BlockPos c) {
-			return Math.abs(c.getX()) + Math.abs(c.getY()) + Math.abs(c.getZ());
+	private static final int OFFSET_MASK = (1 << OFFSET_BITS) - 1;
+
+	private static final int OFFSET_BIAS = 1 << (OFFSET_BITS - 1);
+
+	private static final int MAX_SEARCH_SIZE = OFFSET_BIAS - 1;
+
+	private static int packOffset(int x, int y, int z) {
+		return ((x + OFFSET_BIAS) << (2 * OFFSET_BITS)) | ((y + OFFSET_BIAS) << OFFSET_BITS) | (z + OFFSET_BIAS);
+	}
+
+	private static int unpackX(int offset) {
+		return ((offset >> (2 * OFFSET_BITS)) & OFFSET_MASK) - OFFSET_BIAS;
+	}
+
+	private static int unpackY(int offset) {
+		return ((offset >> OFFSET_BITS) & OFFSET_MASK) - OFFSET_BIAS;
+	}
+
+	private static int unpackZ(int offset) {
+		return (offset & OFFSET_MASK) - OFFSET_BIAS;
+	}
+
+	private static final Comparator<Integer> SEARCH_COMPARATOR = new Comparator<Integer>() {
+
+		private int coordSum(int c) {
+			return Math.abs(unpackX(c)) + Math.abs(unpackY(c)) + Math.abs(unpackZ(c));
 		}
 
-		private int coordMax(BlockPos c) {
-			return Math.max(Math.max(Math.abs(c.getX()), Math.abs(c.getY())), Math.abs(c.getZ()));
+		private int coordMax(int c) {
+			return Math.max(Math.max(Math.abs(unpackX(c)), Math.abs(unpackY(c))), Math.abs(unpackZ(c)));
 		}
 
 		@Override
-		public int compare(BlockPos a, BlockPos b) {
+		public int compare(Integer a, Integer b) {
 			// first order by Manhattan distance
 			int diff = coordSum(a) - coordSum(b);
 			if (diff != 0) return diff;
@@ -74,39 +108,63 @@ public class PlayerDeathHandler {
 		}
 	};
 
-	private static class SearchOrder implements Iterable<BlockPos> {
-		public final int size;
+	// offsets packed into ints, already sorted in search order. Shared between all searches
+	private static final Map<Integer, int[]> searchOrders = Maps.newHashMap();
+
+	private static synchronized int[] getSearchOrder(int size) {
+		size = Math.max(0, Math.min(size, MAX_SEARCH_SIZE));
+		int[] result = searchOrders.get(size);
+		if (result == null) {
+			result = createSearchOrder(size);
+			searchOrders.put(size, result);
+		}
 
-		private final List<BlockPos> coords;
+		return result;
+	}
 
-		public SearchOrder(int size) {
-			this.size = size;
+	private static int[] createSearchOrder(int size) {
+		final List<Integer> coords = Lists.newArrayList();
 
-			List<BlockPos> coords = Lists.newArrayList();
+		for (int x = -size; x <= size; x++)
+			for (int y = -size; y <= size; y++)
+				for (int z = -size; z <= size; z++)
+					coords.add(packOffset(x, y, z));
 
-			for (int x = -size; x <= size; x++)
-				for (int y = -size; y <= size; y++)
-					for (int z = -size; z <= size; z++)
-						coords.add(new BlockPos(x, y, z));
+		Collections.sort(coords, SEARCH_COMPARATOR);
+		return Ints.toArray(coords);
+	}
 
-			Collections.sort(coords, SEARCH_COMPARATOR);
+	private static class TickBudget {
+		private long tick = Long.MIN_VALUE;
 
-			this.coords = ImmutableList.copyOf(coords);
-		}
+		private long deadline;
 
-		@Override
-		public Iterator<BlockPos> iterator() {
-			return coords.iterator();
+		public long getDeadline(World world) {
+			final long currentTick = world.getTotalWorldTime();
+			if (currentTick != tick) {
+				tick = currentTick;
+				deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(Config.graveSearchTimeBudget);
+			}
+
+			return deadline;
 		}
 	}
 
-	private static SearchOrder searchOrder;
+	// all grave searches in single world tick share one budget, so mass deaths are spread over multiple ticks
+	private static final Map<World, TickBudget> searchBudgets = new MapMaker().weakKeys().makeMap();
 
-	private static Iterable<BlockPos> getSearchOrder(int size) {
-		if (searchOrder == null || searchOrder.size != size) searchOrder = new SearchOrder(size);
-		return searchOrder;
+	private static long getSearchDeadline(World world) {
+		TickBudget budget = searchBudgets.get(world);
+		if (budget == null) {
+			budget = new TickBudget();
+			searchBudgets.put(world, budget);
+		}
+
+		return budget.getDeadline(world);
 	}
 
+	private static final List<GraveCallable> pendingGraves = Lists.newArrayList();
+
 	private abstract static class GravePlacementChecker {
 		public boolean canPlace(World world, EntityPlayer player, BlockPos pos) {
 			if (!world.isBlockLoaded(pos)) return false;
@@ -116,6 +174,11 @@ public class PlayerDeathHandler {
 			return checkBlock(world, pos, block);
 		}
 
+		public boolean canPlaceInEmptySection(World world, EntityPlayer player, BlockPos pos) {
+			// air is accepted by all checkers
+			return world.isBlockModifiable(player, pos);
+		}
+
 		public abstract boolean checkBlock(World world, BlockPos pos, IBlockState state);
 	}
 
@@ -134,6 +197,119 @@ public class PlayerDeathHandler {
 		}
 	};
 
+	private enum SectionState {
+		UNAVAILABLE,
+		EMPTY,
+		MIXED
+	}
+
+	private static class GraveLocationSearch {
+		// minimal amount of positions checked every tick, regardless of budget
+		private static final int CHECK_BATCH = 16;
+
+		private final int[] searchOrder;
+
+		private final BlockPos origin;
+
+		private final MutableBlockPos tryPos = new MutableBlockPos();
+
+		private GravePlacementChecker checker = POLITE;
+
+		private int index;
+
+		private BlockPos result;
+
+		private int sectionX;
+
+		private int sectionY;
+
+		private int sectionZ;
+
+		private SectionState sectionState;
+
+		public GraveLocationSearch(BlockPos playerPos) {
+			final int limitedPosY = Math.min(Math.max(playerPos.getY(), Config.minGraveY), Config.maxGraveY);
+			this.origin = new BlockPos(playerPos.getX(), limitedPosY, playerPos.getZ());
+			this.searchOrder = getSearchOrder(Config.graveSpawnRange / 2);
+		}
+
+		private SectionState getSectionState(World world, BlockPos pos) {
+			final int x = pos.getX() >> 4;
+			final int y = pos.getY() >> 4;
+			final int z = pos.getZ() >> 4;
+
+			if (sectionState == null || x != sectionX || y != sectionY || z != sectionZ) {
+				sectionX = x;
+				sectionY = y;
+				sectionZ = z;
+				sectionState = calculateSectionState(world, x, y, z);
+			}
+
+			return sectionState;
+		}
+
+		private static SectionState calculateSectionState(World world, int x, int y, int z) {
+			if (y < 0 || y >= 16) return SectionState.UNAVAILABLE;
+			final Chunk chunk = world.getChunkProvider().getLoadedChunk(x, z);
+			if (chunk == null) return SectionState.UNAVAILABLE;
+
+			final ExtendedBlockStorage storage = chunk.getBlockStorageArray()[y];
+			return (storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty())? SectionState.EMPTY : SectionState.MIXED;
+		}
+
+		private boolean checkPosition(World world, EntityPlayer player, BlockPos pos) {
+			switch (getSectionState(world, pos)) {
+				case EMPTY:
+					return checker.canPlaceInEmptySection(world, player, pos);
+				case MIXED:
+					return checker.canPlace(world, player, pos);
+				case UNAVAILABLE:
+				default:
+					return false;
+			}
+		}
+
+		private GravePlacementChecker nextChecker(EntityPlayer player) {
+			if (checker == POLITE && Config.destructiveGraves) {
+				Log.warn("Failed to place grave for player %s, going berserk", player.getGameProfile());
+				return BRUTAL;
+			}
+
+			return null;
+		}
+
+		/**
+		 * @return true if search is finished (successfully or not), false if it ran out of time
+		 */
+		public boolean advance(World world, EntityPlayer player, long deadline) {
+			int checked = 0;
+			while (checker != null) {
+				while (index < searchOrder.length) {
+					if (++checked % CHECK_BATCH == 0 && System.nanoTime() > deadline) return false;
+
+					final int offset = searchOrder[index++];
+					final int y = origin.getY() + unpackY(offset);
+					if (y > Config.maxGraveY || y < Config.minGraveY) continue;
+
+					tryPos.setPos(origin.getX() + unpackX(offset), y, origin.getZ() + unpackZ(offset));
+					if (checkPosition(world, player, tryPos)) {
+						result = tryPos.toImmutable();
+						return true;
+					}
+				}
+
+				checker = nextChecker(player);
+				index = 0;
+			}
+
+			return true;
+		}
+
+		public BlockPos getResult() {
+			return result;
+		}
+	}
+
 	private static class GraveCallable implements Runnable {
 
 		private final ITextComponent cause;
@@ -144,16 +320,19 @@ public class PlayerDeathHandler {
 
 		private final List<EntityItem> loot;
 
-		private final WeakReference<World> world;
+		// search may span multiple ticks, so references are kept until grave is placed or loot is dropped
+		private final World world;
 
-		private final WeakReference<EntityPlayer> exPlayer;
+		private final EntityPlayer exPlayer;
+
+		private GraveLocationSearch search;
 
 		public GraveCallable(World world, EntityPlayer exPlayer, List<EntityItem> loot) {
 			this.playerPos = exPlayer.getPosition();
 
-			this.world = new WeakReference<World>(world);
+			this.world = world;
 
-			this.exPlayer = new WeakReference<EntityPlayer>(exPlayer);
+			this.exPlayer = exPlayer;
 			this.stiffId = exPlayer.getGameProfile();
 
 			final ITextComponent day = formatDate(world);
@@ -217,9 +396,7 @@ public class PlayerDeathHandler {
 			return loot;
 		}
 
-		private boolean trySpawnGrave(EntityPlayer player, World world) {
-			final BlockPos location = findLocation(world, player);
-
+		private boolean trySpawnGrave(EntityPlayer player, World world, BlockPos location) {
 			String gravestoneText = stiffId.getName();
 			final GraveSpawnEvent evt = new GraveSpawnEvent(player, location, loot, gravestoneText, cause);
 
@@ -249,33 +426,6 @@ public class PlayerDeathHandler {
 					&& world.isBlockModifiable(player, pos);
 		}
 
-		private BlockPos findLocation(World world, EntityPlayer player, GravePlacementChecker checker) {
-			final int limitedPosY = Math.min(Math.max(playerPos.getY(), Config.minGraveY), Config.maxGraveY);
-			BlockPos searchPos = new BlockPos(playerPos.getX(), limitedPosY, playerPos.getZ());
-			final int searchSize = Config.graveSpawnRange / 2;
-
-			for (BlockPos c : getSearchOrder(searchSize)) {
-				final BlockPos tryPos = searchPos.add(c);
-				final int y = tryPos.getY();
-				if (y > Config.maxGraveY || y < Config.minGraveY) continue;
-				if (checker.canPlace(world, player, tryPos)) return tryPos;
-			}
-
-			return null;
-		}
-
-		private BlockPos findLocation(World world, EntityPlayer player) {
-			BlockPos location = findLocation(world, player, POLITE);
-			if (location != null) return location;
-
-			if (Config.destructiveGraves) {
-				Log.warn("Failed to place grave for player %s, going berserk", stiffId);
-				return findLocation(world, player, BRUTAL);
-			}
-
-			return null;
-		}
-
 		private void backupGrave(World world, IInventory loot, ExtrasFiller filler) {
 			try {
 				File backup = PlayerInventoryStore.instance.storeInventory(loot, stiffId.getName(), "grave", world, filler);
@@ -285,33 +435,80 @@ public class PlayerDeathHandler {
 			}
 		}
 
+		public boolean isInWorld(World world) {
+			return this.world == world;
+		}
+
 		@Override
 		public void run() {
-			EntityPlayer player = exPlayer.get();
-			if (player == null) {
-				Log.warn("Lost player while placing player %s grave", stiffId);
-				return;
+			if (!resume()) {
+				Log.log(debugLevel(), "Grave search for player %s exceeded tick budget, will continue in next tick", stiffId);
+				pendingGraves.add(this);
 			}
+		}
+
+		/**
+		 * @return false if grave location search needs more time
+		 */
+		public boolean resume() {
+			if (search == null) search = new GraveLocationSearch(playerPos);
+			if (!search.advance(world, exPlayer, getSearchDeadline(world))) return false;
+
+			if (!trySpawnGrave(exPlayer, world, search.getResult())) dropLoot();
+			return true;
+		}
 
-			World world = this.world.get();
-			if (world == null) {
-				Log.warn("Lost world while placing player %s grave", stiffId);
-				return;
+		/**
+		 * Called when grave can't be placed (or search is abandoned): stores backup and drops loot on ground
+		 */
+		public void dropLoot() {
+			if (Config.backupGraves) {
+				IInventory loot = getLoot();
+				backupGrave(world, loot, new ExtrasFiller() {
+					@Override
+					public void addExtras(NBTTagCompound meta) {
+						setCommonStoreInfo(meta, false);
+					}
+				});
 			}
 
-			if (!trySpawnGrave(player, world)) {
-				if (Config.backupGraves) {
-					IInventory loot = getLoot();
-					backupGrave(world, loot, new ExtrasFiller() {
-						@Override
-						public void addExtras(NBTTagCompound meta) {
-							setCommonStoreInfo(meta, false);
-						}
-					});
-				}
+			for (EntityItem drop : loot)
+				world.spawnEntityInWorld(drop);
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase != Phase.END || evt.world.isRemote || pendingGraves.isEmpty()) return;
+
+		final long deadline = getSearchDeadline(evt.world);
+		boolean resumedAny = false;
+
+		final Iterator<GraveCallable> it = pendingGraves.iterator();
+		while (it.hasNext()) {
+			final GraveCallable callable = it.next();
+			if (!callable.isInWorld(evt.world)) continue;
+
+			// oldest search always gets some time, rest only while budget lasts
+			if (resumedAny && System.nanoTime() > deadline) break;
+			resumedAny = true;
+
+			if (callable.resume()) it.remove();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		final World world = evt.getWorld();
+		if (world.isRemote) return;
 
-				for (EntityItem drop : loot)
-					world.spawnEntityInWorld(drop);
+		final Iterator<GraveCallable> it = pendingGraves.iterator();
+		while (it.hasNext()) {
+			final GraveCallable callable = it.next();
+			if (callable.isInWorld(world)) {
+				Log.warn("World unloaded while placing player %s grave, dropping loot", callable.stiffId);
+				callable.dropLoot();
+				it.remove();
 			}
 		}
 	}
@@ -4,6 +4,8 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraftforge.fluids.FluidStack;
 import openblocks.IOpenBlocksProxy;
+import openblocks.common.tileentity.TileEntityImaginary;
+import openblocks.common.tileentity.TileEntitySky;
 
 public class ServerProxy implements IOpenBlocksProxy {
 
@@ -22,6 +24,18 @@ public class ServerProxy implements IOpenBlocksProxy {
 	@Override
 	public void spawnLiquidSpray(World worldObj, FluidStack fluid, double x, double y, double z, float scale, float gravity, Vec3d velocity) {}
 
+	@Override
+	public void updateImaginaryBlock(TileEntityImaginary te) {}
+
+	@Override
+	public void removeImaginaryBlock(TileEntityImaginary te) {}
+
+	@Override
+	public void updateSkyBlock(TileEntitySky te) {}
+
+	@Override
+	public void removeSkyBlock(TileEntitySky te) {}
+
 	@Override
 	public int getParticleSettings() {
 		return 3; // really no particles
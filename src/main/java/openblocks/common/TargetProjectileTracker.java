@@ -0,0 +1,93 @@
+package openblocks.common;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.util.math.RayTraceResult.Type;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import openblocks.OpenBlocks.Blocks;
+import openblocks.common.tileentity.TileEntityTarget;
+import openmods.utils.EntityUtils;
+
+/**
+ * Predicts hits of projectiles that don't collide with blocks in usual way (like FlansMod bullets).
+ * Every tracked projectile is raytraced once per tick (but only in worlds with loaded targets) and hit is routed to target at hit position.
+ */
+public class TargetProjectileTracker {
+
+	public static final TargetProjectileTracker instance = new TargetProjectileTracker();
+
+	private static class WorldProjectiles {
+		private final Set<Entity> projectiles = Sets.newSetFromMap(new MapMaker().weakKeys().<Entity, Boolean> makeMap());
+
+		private final Set<TileEntityTarget> targets = Sets.newSetFromMap(new MapMaker().weakKeys().<TileEntityTarget, Boolean> makeMap());
+	}
+
+	private final Map<World, WorldProjectiles> worlds = new MapMaker().weakKeys().makeMap();
+
+	private WorldProjectiles getWorldProjectiles(World world) {
+		WorldProjectiles result = worlds.get(world);
+		if (result == null) {
+			result = new WorldProjectiles();
+			worlds.put(world, result);
+		}
+
+		return result;
+	}
+
+	public void addTarget(TileEntityTarget target) {
+		getWorldProjectiles(target.getWorld()).targets.add(target);
+	}
+
+	public void removeTarget(TileEntityTarget target) {
+		final WorldProjectiles world = worlds.get(target.getWorld());
+		if (world != null) world.targets.remove(target);
+	}
+
+	@SubscribeEvent
+	public void onEntityJoinWorld(EntityJoinWorldEvent evt) {
+		final World world = evt.getWorld();
+		if (!world.isRemote && TileEntityTarget.isTrackedProjectile(evt.getEntity()))
+			getWorldProjectiles(world).projectiles.add(evt.getEntity());
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase != Phase.END || evt.world.isRemote) return;
+
+		final WorldProjectiles world = worlds.get(evt.world);
+		if (world == null || world.projectiles.isEmpty()) return;
+
+		final boolean hasTargets = !world.targets.isEmpty();
+
+		final Iterator<Entity> it = world.projectiles.iterator();
+		while (it.hasNext()) {
+			final Entity projectile = it.next();
+			if (projectile.isDead || projectile.worldObj != evt.world) {
+				it.remove();
+				continue;
+			}
+
+			if (hasTargets) checkHit(evt.world, projectile);
+		}
+	}
+
+	private static void checkHit(World world, Entity projectile) {
+		final RayTraceResult hit = EntityUtils.raytraceEntity(projectile);
+		if (hit != null && hit.typeOfHit == Type.BLOCK) {
+			final BlockPos pos = hit.getBlockPos();
+			final IBlockState state = world.getBlockState(pos);
+			if (state.getBlock() == Blocks.target) Blocks.target.onTargetHit(world, pos, state, hit.hitVec);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package openblocks.common;
+
+import com.google.common.collect.MapMaker;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+import net.minecraft.world.gen.NoiseGeneratorPerlin;
+
+/**
+ * Base thermal noise used by hang gliders. Noise depends only on day (so it's constant for whole day), which allows caching it on coarse grid.
+ * Grid is split into tiles, created on demand and evicted when there are no players nearby (or there are too many of them).
+ */
+public class ThermalField {
+
+	public static final ThermalField instance = new ThermalField();
+
+	private static final int CELL_SIZE_BITS = 2;
+
+	private static final int CELL_SIZE = 1 << CELL_SIZE_BITS;
+
+	private static final int TILE_SIZE_BITS = 5;
+
+	private static final int TILE_SIZE = 1 << TILE_SIZE_BITS;
+
+	private static final int TILE_SIZE_BLOCKS_BITS = CELL_SIZE_BITS + TILE_SIZE_BITS;
+
+	// extra row and column, so interpolation doesn't have to look into next tile
+	private static final int TILE_POINTS = TILE_SIZE + 1;
+
+	private static final int MAX_TILES = 64;
+
+	private static final int MAINTENANCE_PERIOD = 20 * 10;
+
+	private static final int EVICTION_DISTANCE_TILES = 2;
+
+	private static long tileKey(int tileX, int tileZ) {
+		return ((long)tileX << 32) | (tileZ & 0xFFFFFFFFL);
+	}
+
+	private static class Tile {
+		private final int tileX;
+
+		private final int tileZ;
+
+		private final float[] values = new float[TILE_POINTS * TILE_POINTS];
+
+		public Tile(NoiseGeneratorPerlin noiseGen, int tileX, int tileZ) {
+			this.tileX = tileX;
+			this.tileZ = tileZ;
+
+			final int baseX = tileX << TILE_SIZE_BLOCKS_BITS;
+			final int baseZ = tileZ << TILE_SIZE_BLOCKS_BITS;
+			for (int i = 0; i < TILE_POINTS; i++)
+				for (int j = 0; j < TILE_POINTS; j++)
+					values[i * TILE_POINTS + j] = (float)(noiseGen.getValue((baseX + i * CELL_SIZE) / 20f, (baseZ + j * CELL_SIZE) / 20f) / 4d);
+		}
+
+		public double getValue(double localX, double localZ) {
+			final int i = (int)localX;
+			final int j = (int)localZ;
+			final double fx = localX - i;
+			final double fz = localZ - j;
+
+			final int index = i * TILE_POINTS + j;
+			final double v00 = values[index];
+			final double v01 = values[index + 1];
+			final double v10 = values[index + TILE_POINTS];
+			final double v11 = values[index + TILE_POINTS + 1];
+
+			final double v0 = v00 + (v01 - v00) * fz;
+			final double v1 = v10 + (v11 - v10) * fz;
+			return v0 + (v1 - v0) * fx;
+		}
+	}
+
+	private static class WorldField {
+		private int day = -1;
+
+		private NoiseGeneratorPerlin noiseGen;
+
+		private long lastMaintenance;
+
+		private final Map<Long, Tile> tiles = new LinkedHashMap<Long, Tile>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Tile> eldest) {
+				return size() > MAX_TILES;
+			}
+		};
+
+		private void updateDay(World world) {
+			final int day = world.getCurrentDate().get(Calendar.DAY_OF_YEAR);
+			if (day != this.day) {
+				this.day = day;
+				this.noiseGen = new NoiseGeneratorPerlin(new Random(day), 2);
+				tiles.clear();
+			}
+		}
+
+		private void evictDistantTiles(World world) {
+			final List<EntityPlayer> players = world.playerEntities;
+			final Iterator<Tile> it = tiles.values().iterator();
+			while (it.hasNext()) {
+				final Tile tile = it.next();
+				if (!isNearPlayer(players, tile)) it.remove();
+			}
+		}
+
+		private static boolean isNearPlayer(List<EntityPlayer> players, Tile tile) {
+			for (EntityPlayer player : players) {
+				final int playerTileX = (int)Math.floor(player.posX) >> TILE_SIZE_BLOCKS_BITS;
+				final int playerTileZ = (int)Math.floor(player.posZ) >> TILE_SIZE_BLOCKS_BITS;
+				if (Math.abs(playerTileX - tile.tileX) <= EVICTION_DISTANCE_TILES &&
+						Math.abs(playerTileZ - tile.tileZ) <= EVICTION_DISTANCE_TILES) return true;
+			}
+
+			return false;
+		}
+
+		public synchronized double getValue(World world, double x, double z) {
+			final long time = world.getTotalWorldTime();
+			if (noiseGen == null || time - lastMaintenance >= MAINTENANCE_PERIOD) {
+				lastMaintenance = time;
+				updateDay(world);
+				evictDistantTiles(world);
+			}
+
+			final double cellX = x / CELL_SIZE;
+			final double cellZ = z / CELL_SIZE;
+			final int floorCellX = (int)Math.floor(cellX);
+			final int floorCellZ = (int)Math.floor(cellZ);
+			final int tileX = floorCellX >> TILE_SIZE_BITS;
+			final int tileZ = floorCellZ >> TILE_SIZE_BITS;
+
+			final Long key = tileKey(tileX, tileZ);
+			Tile tile = tiles.get(key);
+			if (tile == null) {
+				tile = new Tile(noiseGen, tileX, tileZ);
+				tiles.put(key, tile);
+			}
+
+			return tile.getValue(cellX - (tileX << TILE_SIZE_BITS), cellZ - (tileZ << TILE_SIZE_BITS));
+		}
+	}
+
+	private final Map<World, WorldField> fields = new MapMaker().weakKeys().makeMap();
+
+	private synchronized WorldField getField(World world) {
+		WorldField field = fields.get(world);
+		if (field == null) {
+			field = new WorldField();
+			fields.put(world, field);
+		}
+
+		return field;
+	}
+
+	/**
+	 * @return base thermal strength at given position (before height, time and weather modifiers), interpolated from cached grid
+	 */
+	public double getValue(World world, double x, double z) {
+		return getField(world).getValue(world, x, z);
+	}
+}
@@ -0,0 +1,291 @@
+package openblocks.common;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.entity.Entity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import openmods.Log;
+
+/**
+ * Opt-in profiler for OpenBlocks tile entities and entities. Server side only.
+ *
+ * Tile entities and entities implement {@link IProfiledUpdate} and delegate their update method to {@link #updateTile} or {@link #updateEntity}, so they are measured in their usual place in world tick.
+ * Per-instance results are keyed by class, dimension and position (or entity id), so profiler does not keep unloaded objects alive.
+ */
+public class TickProfiler {
+
+	public static final TickProfiler instance = new TickProfiler();
+
+	private static final long DISABLED = Long.MIN_VALUE;
+
+	private static final int BUCKETS = 40;
+
+	public interface IProfiledUpdate {
+		/**
+		 * Actual update logic, called (and measured) by {@link TickProfiler#updateTile} or {@link TickProfiler#updateEntity}
+		 */
+		public void updateProfiled();
+	}
+
+	private static class InstanceKey {
+		private final Class<?> cls;
+
+		private final int dimension;
+
+		// position for tile entities, id for entities
+		private final long id;
+
+		public InstanceKey(Class<?> cls, int dimension, long id) {
+			this.cls = cls;
+			this.dimension = dimension;
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + cls.hashCode();
+			result = prime * result + dimension;
+			result = prime * result + (int)(id ^ (id >>> 32));
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) return true;
+			if (obj instanceof InstanceKey) {
+				final InstanceKey other = (InstanceKey)obj;
+				return other.cls == cls &&
+						other.dimension == dimension &&
+						other.id == id;
+			}
+
+			return false;
+		}
+	}
+
+	public static class Stats {
+		public final String name;
+
+		public long count;
+
+		public long totalNanos;
+
+		public long maxNanos;
+
+		public long allocatedBytes;
+
+		// bucket N contains times in range [2^(N-1), 2^N) ns
+		private final long[] histogram = new long[BUCKETS];
+
+		public Stats(String name) {
+			this.name = name;
+		}
+
+		public void record(long nanos, long allocated) {
+			count++;
+			totalNanos += nanos;
+			if (nanos > maxNanos) maxNanos = nanos;
+			if (allocated > 0) allocatedBytes += allocated;
+
+			final int bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+			histogram[Math.min(bucket, BUCKETS - 1)]++;
+		}
+
+		/**
+		 * @return upper bound (in ns) of bucket containing requested percentile
+		 */
+		public long percentile(double fraction) {
+			final long threshold = (long)Math.ceil(count * fraction);
+			long sum = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				sum += histogram[i];
+				if (sum >= threshold) return 1L << i;
+			}
+			return maxNanos;
+		}
+	}
+
+	private static final Comparator<Stats> BY_TOTAL_TIME = new Comparator<Stats>() {
+		@Override
+		public int compare(Stats o1, Stats o2) {
+			return Longs.compare(o2.totalNanos, o1.totalNanos);
+		}
+	};
+
+	private boolean enabled;
+
+	private long sessionStart;
+
+	private long sessionTime;
+
+	private long allocationStart;
+
+	private final com.sun.management.ThreadMXBean allocationBean = createAllocationBean();
+
+	private final Map<Class<?>, Stats> classStats = Maps.newHashMap();
+
+	private final Map<InstanceKey, Stats> instanceStats = Maps.newHashMap();
+
+	private static com.sun.management.ThreadMXBean createAllocationBean() {
+		try {
+			final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean)bean;
+				if (sunBean.isThreadAllocatedMemorySupported()) {
+					sunBean.setThreadAllocatedMemoryEnabled(true);
+					return sunBean;
+				}
+			}
+		} catch (Throwable t) {
+			Log.debug(t, "Thread allocation counters not available");
+		}
+
+		return null;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public boolean hasAllocationData() {
+		return allocationBean != null;
+	}
+
+	public void start() {
+		if (enabled) return;
+		classStats.clear();
+		instanceStats.clear();
+		sessionTime = 0;
+		sessionStart = System.nanoTime();
+		enabled = true;
+	}
+
+	public void stop() {
+		if (!enabled) return;
+		enabled = false;
+		sessionTime += System.nanoTime() - sessionStart;
+	}
+
+	private long currentAllocation() {
+		return allocationBean != null? allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+	}
+
+	private long begin(World world) {
+		if (!enabled || world.isRemote) return DISABLED;
+		allocationStart = currentAllocation();
+		return System.nanoTime();
+	}
+
+	private static String describe(Object target) {
+		if (target instanceof Entity) {
+			final Entity entity = (Entity)target;
+			return String.format("%s #%d (dim %d, first seen at %d,%d,%d)",
+					entity.getClass().getSimpleName(), entity.getEntityId(), entity.worldObj.provider.getDimension(),
+					(int)entity.posX, (int)entity.posY, (int)entity.posZ);
+		}
+
+		if (target instanceof TileEntity) {
+			final TileEntity te = (TileEntity)target;
+			final BlockPos pos = te.getPos();
+			return String.format("%s (dim %d, %d,%d,%d)",
+					te.getClass().getSimpleName(), te.getWorld().provider.getDimension(),
+					pos.getX(), pos.getY(), pos.getZ());
+		}
+
+		return String.valueOf(target);
+	}
+
+	private void record(Object target, int dimension, long id, long start) {
+		final long time = System.nanoTime() - start;
+		final long allocated = allocationBean != null? currentAllocation() - allocationStart : 0;
+
+		final Class<?> cls = target.getClass();
+		Stats perClass = classStats.get(cls);
+		if (perClass == null) {
+			perClass = new Stats(cls.getName());
+			classStats.put(cls, perClass);
+		}
+		perClass.record(time, allocated);
+
+		final InstanceKey key = new InstanceKey(cls, dimension, id);
+		Stats perInstance = instanceStats.get(key);
+		if (perInstance == null) {
+			perInstance = new Stats(describe(target));
+			instanceStats.put(key, perInstance);
+		}
+		perInstance.record(time, allocated);
+	}
+
+	public <T extends TileEntity & IProfiledUpdate> void updateTile(T te) {
+		final World world = te.getWorld();
+		final long start = begin(world);
+		te.updateProfiled();
+		if (start != DISABLED) record(te, world.provider.getDimension(), te.getPos().toLong(), start);
+	}
+
+	public <T extends Entity & IProfiledUpdate> void updateEntity(T entity) {
+		final World world = entity.worldObj;
+		final long start = begin(world);
+		entity.updateProfiled();
+		if (start != DISABLED) record(entity, world.provider.getDimension(), entity.getEntityId(), start);
+	}
+
+	private static List<Stats> topStats(Collection<Stats> stats, int limit) {
+		final List<Stats> result = Lists.newArrayList(stats);
+		Collections.sort(result, BY_TOTAL_TIME);
+		return result.size() > limit? result.subList(0, limit) : result;
+	}
+
+	private static void writeStats(PrintWriter output, String type, Stats stats) {
+		output.printf("%s,\"%s\",%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d%n",
+				type,
+				stats.name,
+				stats.count,
+				stats.totalNanos / 1000000.0,
+				stats.count > 0? stats.totalNanos / 1000.0 / stats.count : 0.0,
+				stats.percentile(0.5) / 1000.0,
+				stats.percentile(0.99) / 1000.0,
+				stats.maxNanos / 1000.0,
+				stats.allocatedBytes);
+	}
+
+	public File dump(File dir, int limit) throws IOException {
+		final long elapsed = sessionTime + (enabled? System.nanoTime() - sessionStart : 0);
+
+		final String date = new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date());
+		final File output = new File(dir, "ob_profile-" + date + ".csv");
+
+		final PrintWriter writer = new PrintWriter(output, "UTF-8");
+		try {
+			writer.printf("# session length: %.3f s, allocation data: %s%n", elapsed / 1000000000.0, hasAllocationData());
+			writer.println("type,name,updates,total_ms,mean_us,p50_us,p99_us,max_us,allocated_bytes");
+
+			for (Stats stats : topStats(classStats.values(), limit))
+				writeStats(writer, "class", stats);
+
+			for (Stats stats : topStats(instanceStats.values(), limit))
+				writeStats(writer, "instance", stats);
+		} finally {
+			writer.close();
+		}
+
+		return output;
+	}
+
+}
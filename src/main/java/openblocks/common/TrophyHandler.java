@@ -1,5 +1,6 @@
 package openblocks.common;
 
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
@@ -50,11 +51,70 @@ public class TrophyHandler {
 
 	private static final Map<Trophy, Entity> ENTITY_CACHE = Maps.newHashMap();
 
+	public static final String DEFAULT_DROP_CHANCE_FORMULA = "let([bias=rand()/4, selection=rand()], (looting + bias) * chance - selection)";
+
+	private interface IDropChanceFormula {
+		public double evaluate(int looting, double chance);
+	}
+
 	private final Random fallbackDropChance = new Random();
 
-	private final SingleExprEvaluator<Double, ExprType> dropChanceCalculator = SingleExprEvaluator.create(DoubleCalculatorFactory.createDefault());
+	// native version of default formula, also used when configured one is invalid
+	private final IDropChanceFormula defaultDropChanceFormula = new IDropChanceFormula() {
+		@Override
+		public double evaluate(int looting, double chance) {
+			final double bias = fallbackDropChance.nextDouble() / 4;
+			final double selection = fallbackDropChance.nextDouble();
+			return (looting + bias) * chance - selection;
+		}
+	};
+
+	private static class CustomDropChanceFormula implements IDropChanceFormula, EnvironmentConfigurator<Double>, Supplier<Double> {
+		private static final int SLOT_LOOTING = 0;
+		private static final int SLOT_CHANCE = 1;
+
+		private final SingleExprEvaluator<Double, ExprType> calculator;
+
+		private final IDropChanceFormula fallback;
+
+		// variables for current evaluation, configurator and fallback are reused between calls
+		private final double[] slots = new double[2];
+
+		public CustomDropChanceFormula(SingleExprEvaluator<Double, ExprType> calculator, IDropChanceFormula fallback) {
+			this.calculator = calculator;
+			this.fallback = fallback;
+		}
+
+		@Override
+		public void accept(Environment<Double> env) {
+			env.setGlobalSymbol("looting", slots[SLOT_LOOTING]);
+			env.setGlobalSymbol("chance", slots[SLOT_CHANCE]);
+		}
+
+		@Override
+		public Double get() {
+			return fallback.evaluate((int)slots[SLOT_LOOTING], slots[SLOT_CHANCE]);
+		}
+
+		@Override
+		public double evaluate(int looting, double chance) {
+			slots[SLOT_LOOTING] = looting;
+			slots[SLOT_CHANCE] = chance;
+			return calculator.evaluate(this, this);
+		}
+	}
+
+	private final Map<Class<? extends Entity>, Trophy> trophiesByClass = Maps.newIdentityHashMap();
+
+	private IDropChanceFormula dropChanceFormula;
 
 	{
+		for (Trophy trophy : Trophy.VALUES) {
+			final Class<? extends Entity> entityClass = EntityList.NAME_TO_CLASS.get(trophy.name());
+			if (entityClass != null) trophiesByClass.put(entityClass, trophy);
+			else Log.warn("Can't find entity class for trophy %s", trophy);
+		}
+
 		updateDropChanceFormula();
 	}
 
@@ -64,11 +124,25 @@ public class TrophyHandler {
 			updateDropChanceFormula();
 	}
 
+	private static String stripWhitespace(String formula) {
+		return CharMatcher.WHITESPACE.removeFrom(Strings.nullToEmpty(formula));
+	}
+
 	private void updateDropChanceFormula() {
-		dropChanceCalculator.setExpr(ExprType.INFIX, Config.trophyDropChanceFormula);
+		if (stripWhitespace(Config.trophyDropChanceFormula).equals(stripWhitespace(DEFAULT_DROP_CHANCE_FORMULA))) {
+			dropChanceFormula = defaultDropChanceFormula;
+			return;
+		}
+
+		final SingleExprEvaluator<Double, ExprType> calculator = SingleExprEvaluator.create(DoubleCalculatorFactory.createDefault());
+		calculator.setExpr(ExprType.INFIX, Config.trophyDropChanceFormula);
 
-		if (!dropChanceCalculator.isExprValid())
+		if (calculator.isExprValid()) {
+			dropChanceFormula = new CustomDropChanceFormula(calculator, defaultDropChanceFormula);
+		} else {
 			Log.info("Invalid trophyDropChanceFormula formula: ", Config.trophyDropChanceFormula);
+			dropChanceFormula = defaultDropChanceFormula;
+		}
 	}
 
 	public static Entity getEntityFromCache(Trophy trophy) {
@@ -261,36 +335,17 @@ public class TrophyHandler {
 	}
 
 	@SubscribeEvent
-	public void onLivingDrops(final LivingDropsEvent event) {
+	public void onLivingDrops(LivingDropsEvent event) {
+		if (!event.isRecentlyHit()) return;
+
 		final Entity entity = event.getEntity();
-		if (event.isRecentlyHit() && canDrop(entity)) {
-			final Double result = dropChanceCalculator.evaluate(
-					new EnvironmentConfigurator<Double>() {
-						@Override
-						public void accept(Environment<Double> env) {
-							env.setGlobalSymbol("looting", Double.valueOf(event.getLootingLevel()));
-							env.setGlobalSymbol("chance", Config.trophyDropChance);
-						}
-					}, new Supplier<Double>() {
-						@Override
-						public Double get() {
-							final double bias = fallbackDropChance.nextDouble() / 4;
-							final double selection = fallbackDropChance.nextDouble();
-							return (event.getLootingLevel() + bias) * Config.trophyDropChance - selection;
-						}
-					});
-
-			if (result > 0) {
-				final String entityName = EntityList.getEntityString(entity);
-				if (!Strings.isNullOrEmpty(entityName)) {
-					Trophy mobTrophy = Trophy.TYPES.get(entityName);
-					if (mobTrophy != null) {
-						EntityItem drop = new EntityItem(entity.worldObj, entity.posX, entity.posY, entity.posZ, mobTrophy.getItemStack());
-						drop.setDefaultPickupDelay();
-						event.getDrops().add(drop);
-					}
-				}
-			}
+		final Trophy mobTrophy = trophiesByClass.get(entity.getClass());
+		if (mobTrophy == null || !canDrop(entity)) return;
+
+		if (dropChanceFormula.evaluate(event.getLootingLevel(), Config.trophyDropChance) > 0) {
+			EntityItem drop = new EntityItem(entity.worldObj, entity.posX, entity.posY, entity.posZ, mobTrophy.getItemStack());
+			drop.setDefaultPickupDelay();
+			event.getDrops().add(drop);
 		}
 	}
 
@@ -1,5 +1,8 @@
 package openblocks.common;
 
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.SoundCategory;
+
 public class Vario {
 
 	private static final int WATCHDOG_PERIOD = 1000 / 20; // nominal game tick
@@ -39,8 +42,10 @@ public class Vario {
 
 		@Override
 		public synchronized void keepAlive() {
-			if (isValid)
+			if (isValid) {
+				beeper.setMasterSoundLevel(Minecraft.getMinecraft().gameSettings.getSoundLevel(SoundCategory.MASTER));
 				resetWatchdog();
+			}
 		}
 
 		@Override
@@ -0,0 +1,103 @@
+package openblocks.common;
+
+/**
+ * Generates vario tone (optionally interrupted by beeps) as 16-bit samples. Has no dependencies on game or audio system.
+ *
+ * Tone is linear chirp between frequencies at start and end of every rendered block. Phase is accumulated per sample (in cycles), sine is read from table.
+ */
+public class VarioSynth {
+
+	private static final int SINE_TABLE_BITS = 12;
+
+	private static final int SINE_TABLE_SIZE = 1 << SINE_TABLE_BITS;
+
+	// one extra entry, so interpolation doesn't need to wrap
+	private static final float[] SINE_TABLE = new float[SINE_TABLE_SIZE + 1];
+
+	static {
+		for (int i = 0; i <= SINE_TABLE_SIZE; i++)
+			SINE_TABLE[i] = (float)Math.sin(2 * Math.PI * i / SINE_TABLE_SIZE);
+	}
+
+	private final int sampleRate;
+
+	// in cycles, always in [0, 1)
+	private double wavePhase;
+
+	private int beepPhase;
+
+	private int samplesPerBeep;
+
+	public VarioSynth(int sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	public void reset() {
+		wavePhase = 0;
+		beepPhase = 0;
+	}
+
+	public void setBeepFrequency(double beepFrequency) {
+		samplesPerBeep = beepFrequency == 0? 0 : (int)(sampleRate / beepFrequency);
+	}
+
+	private static double sine(double phase) {
+		final double index = phase * SINE_TABLE_SIZE;
+		final int i = (int)index;
+		final float a = SINE_TABLE[i];
+		return a + (SINE_TABLE[i + 1] - a) * (index - i);
+	}
+
+	/**
+	 * Render block of samples with frequency changing linearly from f0 to f1.
+	 */
+	public void render(short[] output, int offset, int count, double f0, double f1, float amplitude) {
+		final int end = offset + count;
+
+		if (f0 == 0.0 && f1 == 0.0) {
+			for (int i = offset; i < end; i++)
+				output[i] = 0;
+			return;
+		}
+
+		// phase(n) = f0 * n / rate + (f1 - f0) / (2 * count) * n^2 / rate, so phase(n + 1) - phase(n) grows by constant value every sample
+		final double chirp = (f1 - f0) / count / sampleRate;
+		double phaseStep = f0 / sampleRate + chirp / 2;
+		double phase = wavePhase;
+
+		int beepSample = beepPhase;
+		for (int i = offset; i < end; i++) {
+			if (samplesPerBeep == 0 || beepSample < samplesPerBeep) {
+				output[i] = (short)(amplitude * sine(phase));
+			} else {
+				output[i] = 0;
+			}
+
+			if (samplesPerBeep != 0 && beepSample++ >= 2 * samplesPerBeep)
+				beepSample = 0;
+
+			phase += phaseStep;
+			phase -= Math.floor(phase);
+			phaseStep += chirp;
+		}
+
+		beepPhase = beepSample;
+		wavePhase = phase;
+	}
+
+	/**
+	 * Render block of samples as signed 16-bit big-endian PCM.
+	 */
+	public void render(byte[] output, short[] scratch, int count, double f0, double f1, float amplitude) {
+		render(scratch, 0, count, f0, f1, amplitude);
+		for (int i = 0; i < count; i++) {
+			final short v = scratch[i];
+			output[2 * i] = (byte)(v >> 8);
+			output[2 * i + 1] = (byte)v;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package openblocks.common;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.village.Village;
+import net.minecraft.village.VillageCollection;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+
+/**
+ * Per-world spatial index of villages. Index is rebuilt only when villages (or their sizes) change, listeners are notified afterwards.
+ */
+public class VillageIndex {
+
+	public interface IVillageListener {
+		public BlockPos getListenerPos();
+
+		public void onVillagesChanged(List<Village> villages);
+	}
+
+	public static final VillageIndex instance = new VillageIndex();
+
+	private static final int CHECK_PERIOD = 10;
+
+	private static final int CELL_BITS = 5;
+
+	private static long cellKey(int cellX, int cellZ) {
+		return ((long)cellX << 32) | (cellZ & 0xFFFFFFFFL);
+	}
+
+	private static class WorldIndex {
+		private final TLongObjectMap<List<Village>> cells = new TLongObjectHashMap<List<Village>>();
+
+		private final Set<IVillageListener> listeners = Sets.newIdentityHashSet();
+
+		private final Set<IVillageListener> newListeners = Sets.newIdentityHashSet();
+
+		private boolean isBuilt;
+
+		private int signature;
+
+		private int checkCountdown;
+
+		private static int calculateSignature(List<Village> villages) {
+			int result = villages.size();
+			for (Village village : villages) {
+				result = 31 * result + System.identityHashCode(village);
+				result = 31 * result + village.getCenter().hashCode();
+				result = 31 * result + village.getVillageRadius();
+				result = 31 * result + village.getNumVillageDoors();
+				result = 31 * result + village.getNumVillagers();
+			}
+			return result;
+		}
+
+		private void rebuild(List<Village> villages) {
+			cells.clear();
+			for (Village village : villages) {
+				final BlockPos center = village.getCenter();
+				final int radius = village.getVillageRadius();
+				final int minX = (center.getX() - radius) >> CELL_BITS;
+				final int maxX = (center.getX() + radius) >> CELL_BITS;
+				final int minZ = (center.getZ() - radius) >> CELL_BITS;
+				final int maxZ = (center.getZ() + radius) >> CELL_BITS;
+
+				for (int x = minX; x <= maxX; x++)
+					for (int z = minZ; z <= maxZ; z++) {
+						final long key = cellKey(x, z);
+						List<Village> cell = cells.get(key);
+						if (cell == null) {
+							cell = Lists.newArrayList();
+							cells.put(key, cell);
+						}
+						cell.add(village);
+					}
+			}
+
+			isBuilt = true;
+		}
+
+		/**
+		 * @return true if index was rebuilt
+		 */
+		public boolean update(World world) {
+			final VillageCollection collection = world.villageCollectionObj;
+			final List<Village> villages = collection != null? collection.getVillageList() : Collections.<Village> emptyList();
+
+			final int newSignature = calculateSignature(villages);
+			if (isBuilt && newSignature == signature) return false;
+
+			signature = newSignature;
+			rebuild(villages);
+			return true;
+		}
+
+		public List<Village> getVillages(BlockPos pos) {
+			final List<Village> cell = cells.get(cellKey(pos.getX() >> CELL_BITS, pos.getZ() >> CELL_BITS));
+			if (cell == null) return ImmutableList.of();
+
+			final ImmutableList.Builder<Village> result = ImmutableList.builder();
+			for (Village village : cell)
+				if (village.isBlockPosWithinSqVillageRadius(pos)) result.add(village);
+
+			return result.build();
+		}
+
+		private void notifyListeners(Iterable<IVillageListener> toNotify) {
+			for (IVillageListener listener : toNotify)
+				listener.onVillagesChanged(getVillages(listener.getListenerPos()));
+		}
+
+		public void tick(World world) {
+			if (listeners.isEmpty() && newListeners.isEmpty()) return;
+
+			if (--checkCountdown <= 0 || !isBuilt) {
+				checkCountdown = CHECK_PERIOD;
+				if (update(world)) {
+					listeners.addAll(newListeners);
+					newListeners.clear();
+					// copy, since listeners may unregister during notification
+					notifyListeners(Lists.newArrayList(listeners));
+					return;
+				}
+			}
+
+			if (!newListeners.isEmpty()) {
+				final List<IVillageListener> toNotify = Lists.newArrayList(newListeners);
+				listeners.addAll(newListeners);
+				newListeners.clear();
+				notifyListeners(toNotify);
+			}
+		}
+	}
+
+	private final Map<World, WorldIndex> indices = new MapMaker().weakKeys().makeMap();
+
+	private WorldIndex getIndex(World world) {
+		WorldIndex index = indices.get(world);
+		if (index == null) {
+			index = new WorldIndex();
+			indices.put(world, index);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Listener will be notified on next world tick and then on every change in villages
+	 */
+	public void addListener(World world, IVillageListener listener) {
+		if (world.isRemote) return;
+		getIndex(world).newListeners.add(listener);
+	}
+
+	public void removeListener(World world, IVillageListener listener) {
+		final WorldIndex index = indices.get(world);
+		if (index != null) {
+			index.listeners.remove(listener);
+			index.newListeners.remove(listener);
+		}
+	}
+
+	public List<Village> getVillages(World world, BlockPos pos) {
+		if (world.isRemote) return ImmutableList.of();
+		final WorldIndex index = getIndex(world);
+		// without listeners index is not updated on ticks
+		if (!index.isBuilt || index.listeners.isEmpty()) index.update(world);
+		return index.getVillages(pos);
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase == Phase.END && !evt.world.isRemote) {
+			final WorldIndex index = indices.get(evt.world);
+			if (index != null) index.tick(evt.world);
+		}
+	}
+}
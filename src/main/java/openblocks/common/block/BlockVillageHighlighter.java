@@ -5,6 +5,7 @@ import net.minecraft.block.material.Material;
 import net.minecraft.block.properties.PropertyBool;
 import net.minecraft.block.state.BlockStateContainer;
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockAccess;
@@ -79,7 +80,11 @@ public class BlockVillageHighlighter extends OpenBlock.FourDirections {
 		boolean isPowered = world.isBlockIndirectlyGettingPowered(blockPos) > 0;
 
 		final IBlockState newState = state.withProperty(POWERED, isPowered);
-		if (state != newState)
+		if (state != newState) {
 			world.setBlockState(blockPos, newState, BlockNotifyFlags.ALL);
+
+			final TileEntity te = world.getTileEntity(blockPos);
+			if (te instanceof TileEntityVillageHighlighter) ((TileEntityVillageHighlighter)te).onPowerChanged();
+		}
 	}
 }
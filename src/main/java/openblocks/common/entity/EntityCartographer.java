@@ -19,6 +19,8 @@ import openblocks.OpenBlocks.Items;
 import openblocks.client.renderer.entity.EntitySelectionHandler.ISelectAware;
 import openblocks.common.MapDataBuilder;
 import openblocks.common.MapDataBuilder.ChunkJob;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.item.ItemCartographer;
 import openblocks.common.item.ItemEmptyMap;
 import openblocks.common.item.ItemHeightMap;
@@ -36,7 +38,7 @@ import openmods.utils.BitSet;
 import openmods.utils.ItemUtils;
 
 @VisibleForDocumentation
-public class EntityCartographer extends EntityAssistant implements ISelectAware, ISyncMapProvider {
+public class EntityCartographer extends EntityAssistant implements ISelectAware, ISyncMapProvider, IProfiledUpdate {
 
 	private static final int MAP_JOB_DELAY = 5;
 	private static final int MOVE_DELAY = 35;
@@ -170,6 +172,11 @@ public class EntityCartographer extends EntityAssistant implements ISelectAware,
 
 	@Override
 	public void onUpdate() {
+		TickProfiler.instance.updateEntity(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (!worldObj.isRemote) {
 			float yaw = 0;
 			if (isMapping.get()) {
@@ -2,9 +2,7 @@ package openblocks.common.entity;
 
 import com.google.common.collect.MapMaker;
 import io.netty.buffer.ByteBuf;
-import java.util.Calendar;
 import java.util.Map;
-import java.util.Random;
 import net.minecraft.client.entity.EntityPlayerSP;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
@@ -16,20 +14,21 @@ import net.minecraft.network.datasync.DataParameter;
 import net.minecraft.network.datasync.DataSerializers;
 import net.minecraft.network.datasync.EntityDataManager;
 import net.minecraft.util.EnumHand;
-import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import net.minecraft.world.gen.NoiseGeneratorPerlin;
 import net.minecraftforge.fml.common.registry.IEntityAdditionalSpawnData;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import openblocks.Config;
 import openblocks.common.IVarioController;
+import openblocks.common.ThermalField;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.Vario;
 import openblocks.common.item.ItemHangGlider;
 import openmods.Log;
 import openmods.OpenMods;
 
-public class EntityHangGlider extends Entity implements IEntityAdditionalSpawnData {
+public class EntityHangGlider extends Entity implements IEntityAdditionalSpawnData, IProfiledUpdate {
 
 	public static final int THERMAL_HEIGTH_MIN = 70;
 	public static final int THERMAL_HEIGTH_OPT = 110;
@@ -95,7 +94,6 @@ public class EntityHangGlider extends Entity implements IEntityAdditionalSpawnDa
 	}
 
 	private EntityPlayer player;
-	private NoiseGeneratorPerlin noiseGen;
 	private int ticksSinceLastVarioUpdate = 0;
 	private double verticalMotionSinceLastVarioUpdate = 0;
 	private double lastMotionY = 0;
@@ -103,7 +101,6 @@ public class EntityHangGlider extends Entity implements IEntityAdditionalSpawnDa
 
 	public EntityHangGlider(World world) {
 		super(world);
-		this.noiseGen = new NoiseGeneratorPerlin(new Random(world.getCurrentDate().get(Calendar.DAY_OF_YEAR)), 2);
 	}
 
 	public EntityHangGlider(World world, EntityPlayer player, EnumHand spawnedHand) {
@@ -157,6 +154,11 @@ public class EntityHangGlider extends Entity implements IEntityAdditionalSpawnDa
 
 	@Override
 	public void onUpdate() {
+		TickProfiler.instance.updateEntity(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (!isGliderValid(player, this)) {
 			setDead();
 		}
@@ -244,11 +246,11 @@ public class EntityHangGlider extends Entity implements IEntityAdditionalSpawnDa
 	}
 
 	public double getNoise() {
-		double noise = noiseGen.getValue(player.posX / 20f, player.posZ / 20f) / 4d;
+		if (player.dimension != 0) return 0;
+
+		double noise = ThermalField.instance.getValue(worldObj, player.posX, player.posZ);
 		final boolean strong = (noise > 0.7? true : false);
 		final int bonus = (strong? THERMAL_STRONG_BONUS_HEIGTH : 0);
-		final BlockPos pos = player.getPosition();
-		final float biomeRain = worldObj.getBiomeForCoordsBody(pos).getRainfall();
 
 		noise *= Math.min((Math.max((player.posY - THERMAL_HEIGTH_MIN), 0d) / (THERMAL_HEIGTH_OPT - THERMAL_HEIGTH_MIN)), 1d);
 		noise *= Math.min((Math.max((THERMAL_HEIGTH_MAX + bonus - player.posY), 0d) / (THERMAL_HEIGTH_MAX - THERMAL_HEIGTH_OPT + bonus / 4)), 1d);
@@ -257,10 +259,10 @@ public class EntityHangGlider extends Entity implements IEntityAdditionalSpawnDa
 		noise *= Math.min((worldTime / 1000d), 1);
 		noise *= Math.min((Math.max((12000 - worldTime), 0) / 1000d), 1);
 
-		if (player.dimension != 0)
-			noise = 0;
-		else if (worldObj.isRaining() && !strong)
+		if (worldObj.isRaining() && !strong) {
+			final float biomeRain = worldObj.getBiomeForCoordsBody(player.getPosition()).getRainfall();
 			noise = (biomeRain > 0? -0.5 : 0);
+		}
 		return noise;
 	}
 
@@ -1,7 +1,10 @@
 package openblocks.common.entity;
 
+import com.google.common.base.Objects;
 import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
 import io.netty.buffer.ByteBuf;
+import java.util.Map;
 import javax.annotation.Nullable;
 import net.minecraft.block.Block;
 import net.minecraft.entity.EntityAgeable;
@@ -11,6 +14,8 @@ import net.minecraft.entity.effect.EntityLightningBolt;
 import net.minecraft.entity.passive.EntityTameable;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.SoundEvents;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemNameTag;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -30,13 +35,17 @@ import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.common.registry.IEntityAdditionalSpawnData;
 import openblocks.OpenBlocks;
 import openblocks.OpenBlocksGuiHandler;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.entity.ai.EntityAICollectItem;
+import openmods.api.IInventoryCallback;
 import openmods.api.VisibleForDocumentation;
 import openmods.inventory.GenericInventory;
 import openmods.utils.InventoryUtils;
+import openmods.utils.OptionalInt;
 
 @VisibleForDocumentation
-public class EntityLuggage extends EntityTameable implements IEntityAdditionalSpawnData {
+public class EntityLuggage extends EntityTameable implements IEntityAdditionalSpawnData, IProfiledUpdate {
 
 	private static final DataParameter<Integer> PROPERTY_INV_SIZE = EntityDataManager.<Integer> createKey(EntityLuggage.class, DataSerializers.VARINT);
 
@@ -48,15 +57,83 @@ public class EntityLuggage extends EntityTameable implements IEntityAdditionalSp
 
 	private static final String TAG_SHINY = "shiny";
 
+	private static class StackKey {
+		private final Item item;
+
+		private final int damage;
+
+		private final NBTTagCompound tag;
+
+		public StackKey(Item item, int damage, NBTTagCompound tag) {
+			this.item = item;
+			this.damage = damage;
+			this.tag = tag;
+		}
+
+		public StackKey(ItemStack stack) {
+			this(stack.getItem(), stack.getItemDamage(), stack.getTagCompound());
+		}
+
+		public StackKey copy() {
+			return new StackKey(item, damage, tag != null? (NBTTagCompound)tag.copy() : null);
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + System.identityHashCode(item);
+			result = prime * result + damage;
+			result = prime * result + (tag != null? tag.hashCode() : 0);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) return true;
+			if (obj instanceof StackKey) {
+				final StackKey other = (StackKey)obj;
+				return other.item == item &&
+						other.damage == damage &&
+						Objects.equal(other.tag, tag);
+			}
+
+			return false;
+		}
+	}
+
+	// results of insertion checks, valid until next inventory change
+	private final Map<StackKey, Boolean> acceptedStacks = Maps.newHashMap();
+
+	private boolean isFullValid;
+
+	private boolean isFull;
+
+	private final IInventoryCallback inventoryCallback = new IInventoryCallback() {
+		@Override
+		public void onInventoryChanged(IInventory inventory, OptionalInt slotNumber) {
+			invalidateInventoryCache();
+		}
+	};
+
 	protected GenericInventory inventory = createInventory(SIZE_NORMAL);
 
 	private GenericInventory createInventory(int size) {
-		return new GenericInventory("luggage", false, size) {
+		final GenericInventory result = new GenericInventory("luggage", false, size) {
 			@Override
 			public boolean isUseableByPlayer(EntityPlayer player) {
 				return !isDead && player.getDistanceSqToEntity(EntityLuggage.this) < 64;
 			}
 		};
+
+		result.addCallback(inventoryCallback);
+		invalidateInventoryCache();
+		return result;
+	}
+
+	private void invalidateInventoryCache() {
+		acceptedStacks.clear();
+		isFullValid = false;
 	}
 
 	public boolean special;
@@ -93,6 +170,7 @@ public class EntityLuggage extends EntityTameable implements IEntityAdditionalSp
 		inventory.copyFrom(this.inventory);
 		getDataManager().set(PROPERTY_INV_SIZE, inventory.getSizeInventory());
 		this.inventory = inventory;
+		invalidateInventoryCache();
 	}
 
 	public boolean isSpecial() {
@@ -100,6 +178,16 @@ public class EntityLuggage extends EntityTameable implements IEntityAdditionalSp
 		return special;
 	}
 
+	@Override
+	public void onUpdate() {
+		TickProfiler.instance.updateEntity(this);
+	}
+
+	@Override
+	public void updateProfiled() {
+		super.onUpdate();
+	}
+
 	@Override
 	public void onLivingUpdate() {
 		super.onLivingUpdate();
@@ -183,6 +271,7 @@ public class EntityLuggage extends EntityTameable implements IEntityAdditionalSp
 
 		if (tag != null) {
 			inventory.readFromNBT(tag);
+			invalidateInventoryCache();
 			if (inventory.getSizeInventory() > SIZE_NORMAL) setSpecial();
 
 			NBTTagCompound tagCopy = tag.copy();
@@ -194,8 +283,37 @@ public class EntityLuggage extends EntityTameable implements IEntityAdditionalSp
 		if (stack.hasDisplayName()) setCustomNameTag(stack.getDisplayName());
 	}
 
+	public boolean isFull() {
+		if (!isFullValid) {
+			isFull = checkIsFull();
+			isFullValid = true;
+		}
+
+		return isFull;
+	}
+
+	private boolean checkIsFull() {
+		final int stackLimit = inventory.getInventoryStackLimit();
+		for (int i = 0; i < inventory.getSizeInventory(); i++) {
+			final ItemStack stack = inventory.getStackInSlot(i);
+			if (stack == null || stack.stackSize < Math.min(stack.getMaxStackSize(), stackLimit)) return false;
+		}
+
+		return true;
+	}
+
 	public boolean canConsumeStackPartially(ItemStack stack) {
-		return InventoryUtils.canInsertStack(inventory.getHandler(), stack);
+		if (isFull()) return false;
+
+		// result depends only on item type, not on stack size
+		final StackKey key = new StackKey(stack);
+		Boolean result = acceptedStacks.get(key);
+		if (result == null) {
+			result = InventoryUtils.canInsertStack(inventory.getHandler(), stack);
+			acceptedStacks.put(key.copy(), result);
+		}
+
+		return result;
 	}
 
 	@Override
@@ -220,6 +338,7 @@ public class EntityLuggage extends EntityTameable implements IEntityAdditionalSp
 		super.readEntityFromNBT(tag);
 		if (tag.getBoolean(TAG_SHINY)) setSpecial();
 		inventory.readFromNBT(tag);
+		invalidateInventoryCache();
 		this.itemTag = tag.hasKey(TAG_ITEM_TAG, Constants.NBT.TAG_COMPOUND)? tag.getCompoundTag(TAG_ITEM_TAG) : null;
 	}
 
@@ -1,6 +1,7 @@
 package openblocks.common.entity;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
 import io.netty.buffer.ByteBuf;
 import java.lang.ref.WeakReference;
 import java.util.Iterator;
@@ -11,6 +12,9 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.datasync.DataParameter;
+import net.minecraft.network.datasync.DataSerializers;
+import net.minecraft.network.datasync.EntityDataManager;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.math.AxisAlignedBB;
@@ -18,23 +22,36 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.fml.common.registry.IEntityAdditionalSpawnData;
 import openblocks.Config;
 import openblocks.api.IMagnetAware;
 import openblocks.common.CraneRegistry;
 import openblocks.common.MagnetWhitelists;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.item.ItemCraneBackpack;
 import openmods.entity.DelayedEntityLoadManager;
 import openmods.entity.EntityBlock;
 import openmods.entity.EntityBlock.EntityFactory;
 import openmods.entity.IEntityLoadListener;
 
-public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalSpawnData {
+public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalSpawnData, IProfiledUpdate {
 
 	private static final float MAGNET_HEIGHT = 0.5f;
 	private static final float MAGNET_WIDTH = 0.5f;
 	private static final Random RANDOM = new Random();
 
+	private static final DataParameter<Boolean> PROPERTY_ABOVE_TARGET = EntityDataManager.<Boolean> createKey(EntityMagnet.class, DataSerializers.BOOLEAN);
+
+	// targets are re-detected when magnet moves further than that, when number of entities around changes or after period
+	private static final double REDETECT_DISTANCE_SQ = 0.1 * 0.1;
+
+	private static final int REDETECT_PERIOD = 10;
+
+	// same as World.MAX_ENTITY_RADIUS
+	private static final double MAX_ENTITY_RADIUS = 2.0;
+
 	protected static class PickTargetPredicate implements Predicate<Entity> {
 		@Override
 		public boolean apply(@Nullable Entity entity) {
@@ -42,6 +59,8 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 		}
 	}
 
+	private static final Predicate<Entity> PICK_TARGET_PREDICATE = new PickTargetPredicate();
+
 	public interface IEntityBlockFactory {
 		public EntityBlock create(EntityLivingBase player);
 	}
@@ -57,6 +76,18 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 	private static class EntityPlayerTarget implements IOwner {
 		private WeakReference<EntityLivingBase> owner;
 
+		private Vec3d lastTarget;
+
+		private double lastPlayerX;
+
+		private double lastPlayerY;
+
+		private double lastPlayerZ;
+
+		private float lastPlayerYaw;
+
+		private double lastMagnetDistance;
+
 		public EntityPlayerTarget(EntityLivingBase owner) {
 			this.owner = new WeakReference<EntityLivingBase>(owner);
 		}
@@ -74,13 +105,28 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 			EntityLivingBase player = owner.get();
 			if (player == null) return null;
 
+			final double magnetDistance = CraneRegistry.instance.getCraneMagnetDistance(player);
+
+			// player is usually standing still while operating crane, so reuse last result
+			if (lastTarget != null &&
+					player.posX == lastPlayerX &&
+					player.posY == lastPlayerY &&
+					player.posZ == lastPlayerZ &&
+					player.rotationYaw == lastPlayerYaw &&
+					magnetDistance == lastMagnetDistance) return lastTarget;
+
 			double posX = player.posX + CraneRegistry.ARM_RADIUS * MathHelper.cos((player.rotationYaw + 90) * (float)Math.PI / 180);
 			double posZ = player.posZ + CraneRegistry.ARM_RADIUS * MathHelper.sin((player.rotationYaw + 90) * (float)Math.PI / 180);
 
-			double posY = player.posY + player.height
-					- CraneRegistry.instance.getCraneMagnetDistance(player);
+			double posY = player.posY + player.height - magnetDistance;
 
-			return new Vec3d(posX, posY, posZ);
+			lastPlayerX = player.posX;
+			lastPlayerY = player.posY;
+			lastPlayerZ = player.posZ;
+			lastPlayerYaw = player.rotationYaw;
+			lastMagnetDistance = magnetDistance;
+			lastTarget = new Vec3d(posX, posY, posZ);
+			return lastTarget;
 		}
 
 		@Override
@@ -141,9 +187,17 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 	}
 
 	private IOwner owner;
-	private boolean isAboveTarget;
 	private boolean isMagic;
 
+	private final List<Entity> targets = Lists.newArrayList();
+	private Predicate<Entity> pickTargetPredicate;
+	private boolean targetsValid;
+	private double detectedX;
+	private double detectedY;
+	private double detectedZ;
+	private int detectedEntityCount;
+	private int redetectCountdown;
+
 	public EntityMagnet(World world) {
 		super(world);
 		setSize(0.5f, 0.5f);
@@ -171,7 +225,9 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 	}
 
 	@Override
-	protected void entityInit() {}
+	protected void entityInit() {
+		this.dataManager.register(PROPERTY_ABOVE_TARGET, false);
+	}
 
 	@Override
 	protected void readEntityFromNBT(NBTTagCompound tag) {}
@@ -191,6 +247,11 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 
 	@Override
 	public void onUpdate() {
+		TickProfiler.instance.updateEntity(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		fixSize();
 
 		if (!worldObj.isRemote) {
@@ -198,8 +259,8 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 				setDead();
 				return;
 			} else if (owner != null) {
-				final Vec3d target = owner.getTarget().addVector(0, -height, 0);
-				smoother.setTarget(target);
+				final Vec3d target = owner.getTarget();
+				smoother.setTarget(target.xCoord, target.yCoord - height, target.zCoord);
 			}
 		}
 
@@ -207,7 +268,8 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 
 		smoother.update();
 
-		isAboveTarget = !detectEntityTargets().isEmpty();
+		// client only displays state calculated by server
+		if (!worldObj.isRemote) this.dataManager.set(PROPERTY_ABOVE_TARGET, !detectEntityTargets().isEmpty());
 
 		if (isMagic && worldObj.isRemote && RANDOM.nextDouble() < 0.2) worldObj.spawnParticle(EnumParticleTypes.PORTAL,
 				posX + RANDOM.nextDouble() * 0.1,
@@ -243,6 +305,7 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 	}
 
 	public boolean toggleMagnet() {
+		targetsValid = false;
 		final List<Entity> passengers = getPassengers();
 		if (!passengers.isEmpty()) {
 			final Entity passenger = passengers.get(0);
@@ -272,19 +335,78 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 	}
 
 	private Entity findEntityToPick() {
+		targetsValid = false;
 		List<Entity> result = detectEntityTargets();
 		Iterator<Entity> it = result.iterator();
 		return it.hasNext()? it.next() : null;
 	}
 
-	protected List<Entity> detectEntityTargets() {
+	private AxisAlignedBB getDetectionBox() {
 		// TODO 1.8.9 verify addCoord usage
-		AxisAlignedBB aabb = getEntityBoundingBox().expand(0.25, 0, 0.25).addCoord(0, -1, 0);
-		return worldObj.getEntitiesInAABBexcluding(this, aabb, createPickTargetPredicate());
+		return getEntityBoundingBox().expand(0.25, 0, 0.25).addCoord(0, -1, 0);
+	}
+
+	private static int chunkCoord(double coord) {
+		return MathHelper.floor_double(coord / 16.0);
+	}
+
+	private int countEntitiesAround(AxisAlignedBB aabb) {
+		final int minSection = Math.max(chunkCoord(aabb.minY - MAX_ENTITY_RADIUS), 0);
+		final int maxSection = Math.min(chunkCoord(aabb.maxY + MAX_ENTITY_RADIUS), 15);
+		int count = 0;
+
+		for (int chunkX = chunkCoord(aabb.minX - MAX_ENTITY_RADIUS); chunkX <= chunkCoord(aabb.maxX + MAX_ENTITY_RADIUS); chunkX++)
+			for (int chunkZ = chunkCoord(aabb.minZ - MAX_ENTITY_RADIUS); chunkZ <= chunkCoord(aabb.maxZ + MAX_ENTITY_RADIUS); chunkZ++) {
+				final Chunk chunk = worldObj.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+				if (chunk != null) {
+					for (int section = minSection; section <= maxSection; section++)
+						count += chunk.getEntityLists()[section].size();
+				}
+			}
+
+		return count;
+	}
+
+	private void fillTargets(AxisAlignedBB aabb) {
+		if (pickTargetPredicate == null) pickTargetPredicate = createPickTargetPredicate();
+
+		targets.clear();
+		for (int chunkX = chunkCoord(aabb.minX - MAX_ENTITY_RADIUS); chunkX <= chunkCoord(aabb.maxX + MAX_ENTITY_RADIUS); chunkX++)
+			for (int chunkZ = chunkCoord(aabb.minZ - MAX_ENTITY_RADIUS); chunkZ <= chunkCoord(aabb.maxZ + MAX_ENTITY_RADIUS); chunkZ++) {
+				final Chunk chunk = worldObj.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+				if (chunk != null) chunk.getEntitiesWithinAABBForEntity(this, aabb, targets, pickTargetPredicate);
+			}
+	}
+
+	/**
+	 * @return cached list of entities below magnet. List is reused, so it should not be stored or modified by callers
+	 */
+	protected List<Entity> detectEntityTargets() {
+		final AxisAlignedBB aabb = getDetectionBox();
+		final int entityCount = countEntitiesAround(aabb);
+
+		final double dx = posX - detectedX;
+		final double dy = posY - detectedY;
+		final double dz = posZ - detectedZ;
+
+		if (!targetsValid ||
+				--redetectCountdown <= 0 ||
+				entityCount != detectedEntityCount ||
+				dx * dx + dy * dy + dz * dz > REDETECT_DISTANCE_SQ) {
+			fillTargets(aabb);
+			targetsValid = true;
+			redetectCountdown = REDETECT_PERIOD;
+			detectedEntityCount = entityCount;
+			detectedX = posX;
+			detectedY = posY;
+			detectedZ = posZ;
+		}
+
+		return targets;
 	}
 
 	protected Predicate<Entity> createPickTargetPredicate() {
-		return new PickTargetPredicate();
+		return PICK_TARGET_PREDICATE;
 	}
 
 	private Entity createBlockEntity() {
@@ -336,7 +458,7 @@ public class EntityMagnet extends EntitySmoothMove implements IEntityAdditionalS
 	}
 
 	public boolean isAboveTarget() {
-		return isAboveTarget && Config.canMagnetPickEntities;
+		return this.dataManager.get(PROPERTY_ABOVE_TARGET) && Config.canMagnetPickEntities;
 	}
 
 	public boolean isLocked() {
@@ -1,8 +1,14 @@
 package openblocks.common.entity.ai;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockFlower;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.ai.EntityAIBase;
 import net.minecraft.init.Blocks;
@@ -11,18 +17,39 @@ import net.minecraft.pathfinding.PathNavigate;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import openblocks.common.BlockBreakQueue;
+import openblocks.common.BlockChangeTracker;
 import openmods.OpenMods;
-import openmods.fakeplayer.BreakBlockAction;
-import openmods.fakeplayer.FakePlayerPool;
 
 public class EntityAIBreakBlock extends EntityAIBase {
 
+	private static final int SCAN_RADIUS = 8;
+
+	private static final double RESCAN_DISTANCE_SQ = 4 * 4;
+
+	private static final int MIN_RESCAN_DELAY = 20;
+
+	private static final int MAX_RESCAN_DELAY = 20 * 20;
+
+	// candidates without path are ignored for this long, so they don't block reachable ones
+	private static final int UNREACHABLE_TIMEOUT = 20 * 20;
+
+	private static final int MAX_PATH_ATTEMPTS = 3;
+
 	private EntityLiving entity;
 	private PathNavigate pathFinder;
 	private BlockPos blockCoord;
+	private Path blockPath;
 	private int tickOffset = 0;
 	private Random rand;
 
+	private final List<BlockPos> candidates = Lists.newArrayList();
+	private BlockPos scanOrigin;
+	private int scanChangeCount;
+	private long nextScanTick;
+	private int rescanDelay = MIN_RESCAN_DELAY;
+	private final Map<BlockPos, Long> unreachable = Maps.newHashMap();
+
 	public EntityAIBreakBlock(EntityLiving minime) {
 		this.entity = minime;
 		this.pathFinder = minime.getNavigator();
@@ -34,28 +61,110 @@ public class EntityAIBreakBlock extends EntityAIBase {
 	@Override
 	public boolean shouldExecute() {
 		if (!pathFinder.noPath()) return false;
-		boolean hasTicked = (OpenMods.proxy.getTicks(entity.worldObj) + tickOffset) % 4 == 0;
-		if (hasTicked && entity.worldObj != null && !entity.worldObj.isRemote) {
-			for (int i = 0; i < 20; i++) {
-				int x = rand.nextInt(16) - 8;
-				int y = rand.nextInt(3) - 1;
-				int z = rand.nextInt(16) - 8;
-				blockCoord = new BlockPos(
-						x + entity.posX,
-						y + entity.posY,
-						z + entity.posZ);
-
-				if (canHarvestBlock(blockCoord)) { return true; }
-				blockCoord = null;
+		final World world = entity.worldObj;
+		if (world == null || world.isRemote) return false;
+
+		final long ticks = OpenMods.proxy.getTicks(world);
+		boolean hasTicked = (ticks + tickOffset) % 4 == 0;
+		if (hasTicked) {
+			updateCandidates(world, ticks);
+			return selectReachableCandidate(ticks);
+		}
+		return false;
+	}
+
+	private boolean selectReachableCandidate(long ticks) {
+		for (int i = 0; i < MAX_PATH_ATTEMPTS; i++) {
+			final BlockPos candidate = selectCandidate();
+			if (candidate == null) break;
+
+			final Path path = pathFinder.getPathToPos(candidate);
+			if (path != null) {
+				blockCoord = candidate;
+				blockPath = path;
+				return true;
 			}
+
+			candidates.remove(candidate);
+			unreachable.put(candidate, ticks + UNREACHABLE_TIMEOUT);
 		}
+
+		blockCoord = null;
+		blockPath = null;
 		return false;
 	}
 
+	private int getChangeCount(World world, BlockPos origin) {
+		return BlockChangeTracker.instance.getChangeCount(world,
+				origin.getX() - SCAN_RADIUS, origin.getZ() - SCAN_RADIUS,
+				origin.getX() + SCAN_RADIUS - 1, origin.getZ() + SCAN_RADIUS - 1);
+	}
+
+	private void updateCandidates(World world, long ticks) {
+		final BlockPos origin = new BlockPos(entity);
+
+		if (scanOrigin == null) {
+			scan(world, origin, ticks);
+		} else if (ticks >= nextScanTick) {
+			final boolean moved = origin.distanceSq(scanOrigin) > RESCAN_DISTANCE_SQ;
+			if (moved || !BlockChangeTracker.instance.isTracked(world) || getChangeCount(world, scanOrigin) != scanChangeCount) scan(world, origin, ticks);
+		}
+	}
+
+	private void scan(World world, BlockPos origin, long ticks) {
+		candidates.clear();
+
+		final Iterator<Long> expiries = unreachable.values().iterator();
+		while (expiries.hasNext())
+			if (expiries.next() <= ticks) expiries.remove();
+
+		for (int x = -SCAN_RADIUS; x < SCAN_RADIUS; x++)
+			for (int y = -1; y <= 1; y++)
+				for (int z = -SCAN_RADIUS; z < SCAN_RADIUS; z++) {
+					final BlockPos pos = origin.add(x, y, z);
+					if (isHarvestable(world.getBlockState(pos)) && !unreachable.containsKey(pos)) candidates.add(pos);
+				}
+
+		scanOrigin = origin;
+		scanChangeCount = getChangeCount(world, origin);
+
+		// back off when there is nothing to do, changes in area will still be noticed (just later)
+		if (candidates.isEmpty()) {
+			nextScanTick = ticks + rescanDelay;
+			rescanDelay = Math.min(rescanDelay * 2, MAX_RESCAN_DELAY);
+		} else {
+			nextScanTick = ticks + MIN_RESCAN_DELAY;
+			rescanDelay = MIN_RESCAN_DELAY;
+		}
+	}
+
+	private BlockPos selectCandidate() {
+		BlockPos closest = null;
+		double closestDistance = Double.MAX_VALUE;
+
+		final Iterator<BlockPos> it = candidates.iterator();
+		while (it.hasNext()) {
+			final BlockPos candidate = it.next();
+			if (!canHarvestBlock(candidate)) {
+				it.remove();
+				continue;
+			}
+
+			final double distance = entity.getDistanceSqToCenter(candidate);
+			if (distance < closestDistance) {
+				closest = candidate;
+				closestDistance = distance;
+			}
+		}
+
+		return closest;
+	}
+
 	@Override
 	public void resetTask() {
 		pathFinder.clearPathEntity();
 		blockCoord = null;
+		blockPath = null;
 	}
 
 	@Override
@@ -68,10 +177,7 @@ public class EntityAIBreakBlock extends EntityAIBase {
 
 	@Override
 	public void startExecuting() {
-		if (blockCoord != null) {
-			final Path pathentity = pathFinder.getPathToPos(blockCoord);
-			pathFinder.setPath(pathentity, 1.0);
-		}
+		if (blockPath != null) pathFinder.setPath(blockPath, 1.0);
 	}
 
 	@Override
@@ -80,15 +186,20 @@ public class EntityAIBreakBlock extends EntityAIBase {
 		final World world = entity.worldObj;
 		if ((world instanceof WorldServer) && blockCoord != null && canHarvestBlock(blockCoord)) {
 			if (entity.getDistanceSqToCenter(blockCoord) < 1.0) {
-				FakePlayerPool.instance.executeOnPlayer((WorldServer)world, new BreakBlockAction(world, blockCoord).setStackToUse(null));
+				BlockBreakQueue.instance.queueBreak((WorldServer)world, blockCoord);
+				candidates.remove(blockCoord);
 				blockCoord = null;
 			}
 		}
 	}
 
-	public boolean canHarvestBlock(BlockPos coord) {
-		final Block block = entity.worldObj.getBlockState(coord).getBlock();
+	private static boolean isHarvestable(IBlockState state) {
+		final Block block = state.getBlock();
 		return block instanceof BlockFlower ||
 				block == Blocks.TORCH;
 	}
+
+	public boolean canHarvestBlock(BlockPos coord) {
+		return isHarvestable(entity.worldObj.getBlockState(coord));
+	}
 }
@@ -1,6 +1,7 @@
 package openblocks.common.entity.ai;
 
 import java.util.List;
+import java.util.Random;
 import net.minecraft.entity.ai.EntityAIBase;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.item.EnumAction;
@@ -10,6 +11,7 @@ import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraftforge.items.ItemHandlerHelper;
 import openblocks.OpenBlocks;
 import openblocks.common.entity.EntityLuggage;
+import openmods.OpenMods;
 import openmods.utils.ItemUtils;
 
 public class EntityAICollectItem extends EntityAIBase {
@@ -20,10 +22,15 @@ public class EntityAICollectItem extends EntityAIBase {
 
 	private EntityItem targetItem = null;
 
+	private int tickOffset = 0;
+
+	private static final double SEARCH_RANGE = 11.0;
+
 	public EntityAICollectItem(EntityLuggage luggage) {
 		this.luggage = luggage;
 		this.pathFinder = luggage.getNavigator();
 		setMutexBits(3);
+		tickOffset = new Random(luggage.getEntityId()).nextInt(10);
 	}
 
 	@Override
@@ -31,12 +38,17 @@ public class EntityAICollectItem extends EntityAIBase {
 		if (!pathFinder.noPath()) return false;
 
 		if (luggage.worldObj != null) {
-			List<EntityItem> items = luggage.worldObj.getEntitiesWithinAABB(EntityItem.class, new AxisAlignedBB(luggage.posX - 1, luggage.posY - 1, luggage.posZ - 1, luggage.posX + 1, luggage.posY + 1, luggage.posZ + 1).expand(10.0, 10.0, 10.0));
+			boolean hasTicked = (OpenMods.proxy.getTicks(luggage.worldObj) + tickOffset) % 4 == 0;
+			if (!hasTicked || luggage.isFull()) return false;
+
+			List<EntityItem> items = luggage.worldObj.getEntitiesWithinAABB(EntityItem.class, new AxisAlignedBB(
+					luggage.posX - SEARCH_RANGE, luggage.posY - SEARCH_RANGE, luggage.posZ - SEARCH_RANGE,
+					luggage.posX + SEARCH_RANGE, luggage.posY + SEARCH_RANGE, luggage.posZ + SEARCH_RANGE));
 			EntityItem closest = null;
 			double closestDistance = Double.MAX_VALUE;
 			for (EntityItem item : items) {
 				if (!item.isDead && item.onGround) {
-					double dist = item.getDistanceToEntity(luggage);
+					double dist = item.getDistanceSqToEntity(luggage);
 					if (dist < closestDistance
 							&& luggage.canConsumeStackPartially(item.getEntityItem())
 							&& !item.isInWater()) {
@@ -76,7 +88,7 @@ public class EntityAICollectItem extends EntityAIBase {
 	public void updateTask() {
 		super.updateTask();
 		if (!luggage.worldObj.isRemote) {
-			if (targetItem != null && luggage.getDistanceToEntity(targetItem) < 1.0) {
+			if (targetItem != null && luggage.getDistanceSqToEntity(targetItem) < 1.0) {
 				final ItemStack toConsume = targetItem.getEntityItem();
 				final ItemStack leftovers = ItemHandlerHelper.insertItem(luggage.getChestInventory().getHandler(), toConsume, false);
 				if (leftovers == null || leftovers.stackSize < toConsume.stackSize) {
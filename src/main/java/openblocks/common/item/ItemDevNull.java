@@ -1,5 +1,6 @@
 package openblocks.common.item;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -11,6 +12,7 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemBlock;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.EnumActionResult;
 import net.minecraft.util.EnumFacing;
@@ -39,21 +41,80 @@ public class ItemDevNull extends Item {
 
 	private static final String BOX_START = "\u2554";
 
-	private static final LoadingCache<ItemStack, Pair<ItemStack, Integer>> cache = CacheBuilder.newBuilder().softValues().expireAfterAccess(10, TimeUnit.SECONDS).build(new CacheLoader<ItemStack, Pair<ItemStack, Integer>>() {
+	private static final String TAG_CONTENT_HASH = "contentHash";
+
+	private static Pair<ItemStack, Integer> loadContents(ItemStack container) {
+		ItemStack stack = container;
+		int depth = 0;
+
+		while (depth < STACK_LIMIT) {
+			if (stack == null || !(stack.getItem() instanceof ItemDevNull)) return Pair.of(stack, depth);
+			stack = new ItemInventory(stack, 1).getStackInSlot(0);
+			depth++;
+		}
+
+		return Pair.of(null, depth);
+	}
+
+	// used for containers without content hash (i.e. written by older versions), keyed by identity
+	private static final LoadingCache<ItemStack, Pair<ItemStack, Integer>> legacyCache = CacheBuilder.newBuilder().softValues().expireAfterAccess(10, TimeUnit.SECONDS).build(new CacheLoader<ItemStack, Pair<ItemStack, Integer>>() {
 		@Override
 		public Pair<ItemStack, Integer> load(ItemStack container) throws Exception {
-			ItemStack stack = container;
-			int depth = 0;
+			return loadContents(container);
+		}
+	});
 
-			while (depth < STACK_LIMIT) {
-				if (stack == null || !(stack.getItem() instanceof ItemDevNull)) return Pair.of(stack, depth);
-				stack = new ItemInventory(stack, 1).getStackInSlot(0);
-				depth++;
-			}
+	private static class CachedContents {
+		// copy of container tag that was used to load contents, checked on every hit, since hashes may collide
+		private final NBTTagCompound containerTag;
+
+		private final Pair<ItemStack, Integer> contents;
 
-			return Pair.of(null, depth);
+		public CachedContents(NBTTagCompound containerTag, Pair<ItemStack, Integer> contents) {
+			this.containerTag = containerTag;
+			this.contents = contents;
 		}
-	});
+	}
+
+	// keyed by content hash, so all copies of container share entry. Values must not be modified
+	private static final Cache<Long, CachedContents> cache = CacheBuilder.newBuilder().maximumSize(1024).build();
+
+	private static long calculateContentHash(ItemStack contents) {
+		if (contents == null) return 0;
+
+		final NBTTagCompound tag = contents.getTagCompound();
+		long result = Item.getIdFromItem(contents.getItem());
+		result = 31 * result + contents.getItemDamage();
+		result = 31 * result + contents.stackSize;
+		// nested containers include own hash in tag
+		result = 0x9E3779B97F4A7C15L * result + (tag != null? tag.hashCode() : 0);
+		return result;
+	}
+
+	private static void updateContentHash(ItemStack container, ItemStack contents) {
+		NBTTagCompound tag = container.getTagCompound();
+		if (tag == null) {
+			tag = new NBTTagCompound();
+			container.setTagCompound(tag);
+		}
+
+		tag.setLong(TAG_CONTENT_HASH, calculateContentHash(contents));
+	}
+
+	/**
+	 * Container inventory that keeps content hash up to date. Should be used for all modifications of container contents.
+	 */
+	private static class ContentsInventory extends ItemInventory {
+		public ContentsInventory(ItemStack containerStack) {
+			super(containerStack, 1);
+		}
+
+		@Override
+		public void onInventoryChanged(int slotNumber) {
+			super.onInventoryChanged(slotNumber);
+			updateContentHash(containerStack, getStackInSlot(0));
+		}
+	}
 
 	public static class NestedItemColorHandler implements IItemColor {
 		private static final int NO_COLOR = 0xFFFFFFFF;
@@ -95,6 +156,7 @@ public class ItemDevNull extends Item {
 		@Override
 		public void onInventoryChanged(int slotNumber) {
 			super.onInventoryChanged(slotNumber);
+			updateContentHash(containerStack, getStackInSlot(0));
 			if (!player.worldObj.isRemote && slotNumber == 0) {
 				checkStack(containerStack);
 			}
@@ -115,9 +177,20 @@ public class ItemDevNull extends Item {
 		setMaxStackSize(1);
 	}
 
-	public static Pair<ItemStack, Integer> getContents(ItemStack container) {
+	public static Pair<ItemStack, Integer> getContents(final ItemStack container) {
 		if (container == null) return Pair.of(null, 0);
-		return cache.getUnchecked(container);
+		if (!(container.getItem() instanceof ItemDevNull)) return Pair.of(container, 0);
+
+		final NBTTagCompound tag = container.getTagCompound();
+		if (tag == null || !tag.hasKey(TAG_CONTENT_HASH)) return legacyCache.getUnchecked(container);
+
+		final Long hash = tag.getLong(TAG_CONTENT_HASH);
+		final CachedContents cached = cache.getIfPresent(hash);
+		if (cached != null && cached.containerTag.equals(tag)) return cached.contents;
+
+		final Pair<ItemStack, Integer> contents = loadContents(container);
+		cache.put(hash, new CachedContents(tag.copy(), contents));
+		return contents;
 	}
 
 	@Override
@@ -130,7 +203,7 @@ public class ItemDevNull extends Item {
 	public EnumActionResult onItemUse(ItemStack stack, EntityPlayer player, World world, BlockPos pos, EnumHand hand, EnumFacing facing, float hitX, float hitY, float hitZ) {
 		if (hand == EnumHand.OFF_HAND) return EnumActionResult.PASS;
 
-		PlayerItemInventory inventory = new PlayerItemInventory(player, 1);
+		PlayerItemInventory inventory = new DevNullInventory(player, player.inventory.currentItem);
 		ItemStack containedStack = inventory.getStackInSlot(0);
 		if (containedStack != null) {
 			Item item = containedStack.getItem();
@@ -164,7 +237,11 @@ public class ItemDevNull extends Item {
 			final ItemStack stack = player.inventory.getStackInSlot(i);
 
 			if (stack != null && stack.getItem() == this) {
-				final ItemInventory inventory = new ItemInventory(stack, 1);
+				// cheap check on cached contents, before creating inventory. Nested containers are rare, so they are always checked directly
+				final Pair<ItemStack, Integer> contents = getContents(stack);
+				if (contents.getRight() == 1 && (contents.getLeft() == null || !tester.isEqual(pickedStack, contents.getLeft()))) continue;
+
+				final ItemInventory inventory = new ContentsInventory(stack);
 				final ItemStack containedStack = inventory.getStackInSlot(0);
 				if (containedStack != null) {
 					final boolean isMatching = tester.isEqual(pickedStack, containedStack);
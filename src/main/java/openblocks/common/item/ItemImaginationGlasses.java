@@ -13,7 +13,6 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import openblocks.OpenBlocks;
-import openblocks.common.tileentity.TileEntityImaginary;
 import openblocks.common.tileentity.TileEntityImaginary.Property;
 import openmods.colors.ColorMeta;
 import openmods.utils.ItemUtils;
@@ -88,27 +87,26 @@ public class ItemImaginationGlasses extends ItemArmor {
 	public enum Type {
 		PENCIL("pencil") {
 			@Override
-			protected boolean checkBlock(Property property, ItemStack stack, TileEntityImaginary te) {
-				return te.isPencil() ^ te.isInverted();
+			public boolean checkBlock(Property property, boolean isPencil, boolean isMatchingColor, boolean isInverted) {
+				return isPencil ^ isInverted;
 			}
 		},
 		CRAYON("crayon") {
 			@Override
-			protected boolean checkBlock(Property property, ItemStack stack, TileEntityImaginary te) {
-				return (!te.isPencil() && getGlassesColor(stack) == te.color)
-						^ te.isInverted();
+			public boolean checkBlock(Property property, boolean isPencil, boolean isMatchingColor, boolean isInverted) {
+				return (!isPencil && isMatchingColor) ^ isInverted;
 			}
 		},
 		TECHNICOLOR("technicolor") {
 			@Override
-			protected boolean checkBlock(Property property, ItemStack stack, TileEntityImaginary te) {
+			public boolean checkBlock(Property property, boolean isPencil, boolean isMatchingColor, boolean isInverted) {
 				if (property == Property.VISIBLE) return true;
-				return te.isInverted();
+				return isInverted;
 			}
 		},
 		BASTARD("admin") {
 			@Override
-			protected boolean checkBlock(Property property, ItemStack stack, TileEntityImaginary te) {
+			public boolean checkBlock(Property property, boolean isPencil, boolean isMatchingColor, boolean isInverted) {
 				return true;
 			}
 		};
@@ -119,7 +117,10 @@ public class ItemImaginationGlasses extends ItemArmor {
 			this.textureName = OpenBlocks.location("textures/models/glasses_" + name + ".png").toString();
 		}
 
-		protected abstract boolean checkBlock(Property property, ItemStack stack, TileEntityImaginary te);
+		/**
+		 * @param isMatchingColor true when block is crayon and has same color as glasses
+		 */
+		public abstract boolean checkBlock(Property property, boolean isPencil, boolean isMatchingColor, boolean isInverted);
 
 		public static final Type[] VALUES = values();
 	}
@@ -129,10 +130,6 @@ public class ItemImaginationGlasses extends ItemArmor {
 		return this.type.textureName;
 	}
 
-	public boolean checkBlock(Property property, ItemStack stack, TileEntityImaginary te) {
-		return type.checkBlock(property, stack, te);
-	}
-
 	@Override
 	public void getSubItems(Item item, CreativeTabs tab, List<ItemStack> result) {
 		result.add(new ItemStack(this));
@@ -1,6 +1,5 @@
 package openblocks.common.item;
 
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.IItemPropertyGetter;
@@ -43,20 +42,20 @@ public class ItemPedometer extends Item {
 
 	@Override
 	public ActionResult<ItemStack> onItemRightClick(ItemStack stack, World world, EntityPlayer player, EnumHand hand) {
-		if (world.isRemote) {
-			if (player.isSneaking()) {
-				PedometerHandler.getProperty(player).reset();
-				send(player, "openblocks.misc.pedometer.tracking_reset");
-			} else {
-				PedometerState state = PedometerHandler.getProperty(player);
-				if (state.isRunning()) {
+		if (!world.isRemote) {
+			final PedometerState state = PedometerHandler.getProperty(player);
+			if (state != null) {
+				if (player.isSneaking()) {
+					state.reset();
+					send(player, "openblocks.misc.pedometer.tracking_reset");
+				} else if (state.isRunning()) {
 					showPedometerData(player, state);
 				} else {
-					state.init(player, world);
+					state.init(player);
 					send(player, "openblocks.misc.pedometer.tracking_started");
 				}
 			}
-		} else {
+
 			world.playSound(null, player.getPosition(), OpenBlocks.Sounds.ITEM_PEDOMETER_USE, SoundCategory.PLAYERS, 1F, 1F);
 		}
 
@@ -83,12 +82,4 @@ public class ItemPedometer extends Item {
 		send(player, "openblocks.misc.pedometer.total_time", result.totalTime);
 	}
 
-	@Override
-	public void onUpdate(ItemStack stack, World world, Entity entity, int slotId, boolean isSelected) {
-		if (world.isRemote && slotId < 9) {
-			PedometerState state = PedometerHandler.getProperty(entity);
-			if (state.isRunning()) state.update(entity);
-		}
-	}
-
 }
@@ -19,9 +19,13 @@ import net.minecraftforge.items.CapabilityItemHandler;
 import openblocks.OpenBlocks;
 import openblocks.client.gui.GuiAutoAnvil;
 import openblocks.common.LiquidXpUtils;
+import openblocks.common.MachineState;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.container.ContainerAutoAnvil;
 import openblocks.common.tileentity.TileEntityAutoAnvil.AutoSlots;
 import openmods.api.IHasGui;
+import openmods.api.IInventoryCallback;
 import openmods.api.INeighbourAwareTile;
 import openmods.api.IValueProvider;
 import openmods.api.IValueReceiver;
@@ -39,6 +43,7 @@ import openmods.sync.SyncableTank;
 import openmods.tileentity.SyncedTileEntity;
 import openmods.utils.EnchantmentUtils;
 import openmods.utils.MiscUtils;
+import openmods.utils.OptionalInt;
 import openmods.utils.SidedInventoryAdapter;
 import openmods.utils.SidedItemHandlerAdapter;
 import openmods.utils.VanillaAnvilLogic;
@@ -47,7 +52,7 @@ import openmods.utils.bitmap.IRpcDirectionBitMap;
 import openmods.utils.bitmap.IRpcIntBitMap;
 import openmods.utils.bitmap.IWriteableBitMap;
 
-public class TileEntityAutoAnvil extends SyncedTileEntity implements IHasGui, IInventoryProvider, IConfigurableGuiSlots<AutoSlots>, INeighbourAwareTile, ITickable {
+public class TileEntityAutoAnvil extends SyncedTileEntity implements IHasGui, IInventoryProvider, IConfigurableGuiSlots<AutoSlots>, INeighbourAwareTile, ITickable, IProfiledUpdate {
 
 	protected static final int TOTAL_COOLDOWN = 40;
 	public static final int MAX_STORED_LEVELS = 45;
@@ -57,6 +62,13 @@ public class TileEntityAutoAnvil extends SyncedTileEntity implements IHasGui, II
 
 	private boolean needsTankUpdate;
 
+	// set on every wake-up, cleared after repair attempt, so failed attempt is not retried until something changes
+	private boolean repairPending = true;
+
+	private final MachineState machineState = new MachineState();
+
+	private ItemMover mover;
+
 	/**
 	 * The 3 slots in the inventory
 	 */
@@ -103,6 +115,13 @@ public class TileEntityAutoAnvil extends SyncedTileEntity implements IHasGui, II
 	private final SidedItemHandlerAdapter itemHandlerCapability = new SidedItemHandlerAdapter(inventory.getHandler());
 
 	public TileEntityAutoAnvil() {
+		inventory.addCallback(new IInventoryCallback() {
+			@Override
+			public void onInventoryChanged(IInventory inventory, OptionalInt slotNumber) {
+				wakeUp();
+			}
+		});
+
 		slotSides.registerSlot(Slots.tool, toolSides, true, false);
 		slotSides.registerSlot(Slots.modifier, modifierSides, true, false);
 		slotSides.registerSlot(Slots.output, outputSides, false, true);
@@ -129,39 +148,61 @@ public class TileEntityAutoAnvil extends SyncedTileEntity implements IHasGui, II
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (!worldObj.isRemote) {
-			// if we should auto-drink liquid, do it!
-			if (automaticSlots.get(AutoSlots.xp)) {
-				if (needsTankUpdate) {
-					tank.updateNeighbours(worldObj, getPos());
-					needsTankUpdate = false;
-				}
-
-				tank.fillFromSides(100, worldObj, getPos(), xpSides.getValue());
+			if (machineState.trackTankLevel(tank.getFluidAmount())) repairPending = true;
+
+			if (machineState.shouldUpdate()) {
+				updateMachine();
+				machineState.afterUpdate(repairPending && hasTool() && !hasOutput());
+				if (tank.isDirty()) sync();
 			}
+		}
+	}
 
-			final ItemMover mover = new ItemMover(worldObj, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+	private ItemMover getMover() {
+		if (mover == null) mover = new ItemMover(worldObj, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+		return mover;
+	}
 
-			if (shouldAutoOutput() && hasOutput()) {
-				mover.setSides(outputSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
+	private void updateMachine() {
+		// if we should auto-drink liquid, do it!
+		if (automaticSlots.get(AutoSlots.xp)) {
+			if (needsTankUpdate) {
+				tank.updateNeighbours(worldObj, getPos());
+				needsTankUpdate = false;
 			}
 
-			if (shouldAutoInputTool() && !hasTool()) {
-				mover.setSides(toolSides.getValue()).pullToSlot(inventory.getHandler(), Slots.tool.ordinal());
-			}
+			tank.fillFromSides(100, worldObj, getPos(), xpSides.getValue());
+		}
 
-			if (shouldAutoInputModifier()) {
-				mover.setSides(modifierSides.getValue()).pullToSlot(inventory.getHandler(), Slots.modifier.ordinal());
+		if (shouldAutoOutput() && hasOutput()) {
+			getMover().setSides(outputSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
+		}
 
-			}
+		if (shouldAutoInputTool() && !hasTool()) {
+			getMover().setSides(toolSides.getValue()).pullToSlot(inventory.getHandler(), Slots.tool.ordinal());
+		}
 
-			if (cooldown-- < 0 && !hasOutput()) {
-				repairItem();
-				cooldown = TOTAL_COOLDOWN;
-			}
+		if (shouldAutoInputModifier()) {
+			getMover().setSides(modifierSides.getValue()).pullToSlot(inventory.getHandler(), Slots.modifier.ordinal());
 
-			if (tank.isDirty()) sync();
 		}
+
+		if (cooldown-- < 0 && !hasOutput()) {
+			repairItem();
+			repairPending = false;
+			cooldown = TOTAL_COOLDOWN;
+		}
+	}
+
+	private void wakeUp() {
+		repairPending = true;
+		machineState.wakeUp();
 	}
 
 	private void repairItem() {
@@ -295,11 +336,25 @@ public class TileEntityAutoAnvil extends SyncedTileEntity implements IHasGui, II
 	public void validate() {
 		super.validate();
 		this.needsTankUpdate = true;
+		machineState.register(worldObj);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		machineState.unregister();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		machineState.unregister();
 	}
 
 	@Override
 	public void onNeighbourChanged(Block block) {
 		this.needsTankUpdate = true;
+		wakeUp();
 	}
 
 	@Override
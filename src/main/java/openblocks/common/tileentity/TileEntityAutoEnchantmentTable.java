@@ -20,6 +20,9 @@ import net.minecraftforge.oredict.OreDictionary;
 import openblocks.OpenBlocks;
 import openblocks.client.gui.GuiAutoEnchantmentTable;
 import openblocks.common.LiquidXpUtils;
+import openblocks.common.MachineState;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.container.ContainerAutoEnchantmentTable;
 import openblocks.common.tileentity.TileEntityAutoEnchantmentTable.AutoSlots;
 import openblocks.rpc.ILevelChanger;
@@ -52,7 +55,7 @@ import openmods.utils.bitmap.IRpcDirectionBitMap;
 import openmods.utils.bitmap.IRpcIntBitMap;
 import openmods.utils.bitmap.IWriteableBitMap;
 
-public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements IInventoryProvider, IHasGui, IConfigurableGuiSlots<AutoSlots>, ILevelChanger, INeighbourAwareTile, ITickable {
+public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements IInventoryProvider, IHasGui, IConfigurableGuiSlots<AutoSlots>, ILevelChanger, INeighbourAwareTile, ITickable, IProfiledUpdate {
 
 	private static final String TAG_SEED = "Seed";
 
@@ -91,6 +94,10 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 
 	private boolean needsTankUpdate;
 
+	private final MachineState machineState = new MachineState();
+
+	private ItemMover mover;
+
 	private final GenericInventory inventory = new TileEntityInventory(this, "autoenchant", true, 3) {
 		final List<ItemStack> lapis = OreDictionary.getOres("gemLapis");
 
@@ -209,6 +216,8 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 		itemHandlerCapability.registerSlot(Slots.lapis, lapisSides, true, false);
 		itemHandlerCapability.registerSlot(Slots.output, outputSides, false, true);
 
+		inventory.addCallback(machineState);
+
 		this.seed = seedGenerator.nextLong();
 	}
 
@@ -255,42 +264,62 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		bookState.handleBookRotation();
 
 		if (!worldObj.isRemote) {
-			if (automaticSlots.get(AutoSlots.xp)) {
-				if (needsTankUpdate) {
-					tank.updateNeighbours(worldObj, pos);
-					needsTankUpdate = false;
-				}
+			machineState.trackTankLevel(tank.getFluidAmount());
 
-				tank.fillFromSides(80, worldObj, pos, xpSides.getValue());
-			}
-
-			if (powerCheckCountdown-- <= 0) {
-				powerCheckCountdown = POWER_CHECK_PERIOD;
-				final int power = (int)EnchantmentUtils.getPower(worldObj, getPos());
-				availablePower.set(power);
+			if (machineState.shouldUpdate()) {
+				updateMachine();
+				machineState.afterUpdate(false);
+				sync();
 			}
+		}
+	}
 
-			final ItemMover mover = new ItemMover(worldObj, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+	private ItemMover getMover() {
+		if (mover == null) mover = new ItemMover(worldObj, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+		return mover;
+	}
 
-			if (shouldAutoOutput() && hasStack(Slots.output)) {
-				mover.setSides(outputSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
+	private void updateMachine() {
+		if (automaticSlots.get(AutoSlots.xp)) {
+			if (needsTankUpdate) {
+				tank.updateNeighbours(worldObj, pos);
+				needsTankUpdate = false;
 			}
 
-			if (shouldAutoInputTool() && hasSpace(Slots.tool)) {
-				mover.setSides(inputSides.getValue()).pullToSlot(inventory.getHandler(), Slots.tool.ordinal());
-			}
+			tank.fillFromSides(80, worldObj, pos, xpSides.getValue());
+		}
 
-			if (shouldAutoInputLapis() && hasSpace(Slots.lapis)) {
-				mover.setSides(lapisSides.getValue()).pullToSlot(inventory.getHandler(), Slots.lapis.ordinal());
+		// bookshelves are not neighbours, so they are checked on every idle check
+		if (machineState.isSleeping() || powerCheckCountdown-- <= 0) {
+			powerCheckCountdown = POWER_CHECK_PERIOD;
+			final int power = (int)EnchantmentUtils.getPower(worldObj, getPos());
+			if (power != availablePower.get()) {
+				availablePower.set(power);
+				machineState.wakeUp();
 			}
+		}
 
-			tryEnchantItem();
+		if (shouldAutoOutput() && hasStack(Slots.output)) {
+			getMover().setSides(outputSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
+		}
 
-			sync();
+		if (shouldAutoInputTool() && hasSpace(Slots.tool)) {
+			getMover().setSides(inputSides.getValue()).pullToSlot(inventory.getHandler(), Slots.tool.ordinal());
 		}
+
+		if (shouldAutoInputLapis() && hasSpace(Slots.lapis)) {
+			getMover().setSides(lapisSides.getValue()).pullToSlot(inventory.getHandler(), Slots.lapis.ordinal());
+		}
+
+		tryEnchantItem();
 	}
 
 	private void tryEnchantItem() {
@@ -445,12 +474,14 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 	@Override
 	public void changePowerLimit(int powerLimit) {
 		this.powerLimit.set(powerLimit);
+		machineState.wakeUp();
 		sync();
 	}
 
 	@Override
 	public void changeLevel(Level level) {
 		this.selectedLevel.set(level);
+		machineState.wakeUp();
 		sync();
 	}
 
@@ -470,11 +501,25 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 	public void validate() {
 		super.validate();
 		this.needsTankUpdate = true;
+		machineState.register(worldObj);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		machineState.unregister();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		machineState.unregister();
 	}
 
 	@Override
 	public void onNeighbourChanged(Block block) {
 		this.needsTankUpdate = true;
+		machineState.wakeUp();
 	}
 
 }
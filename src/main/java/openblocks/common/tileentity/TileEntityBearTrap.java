@@ -12,6 +12,8 @@ import net.minecraft.util.EnumHand;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.MathHelper;
 import openblocks.OpenBlocks;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openmods.api.IActivateAwareTile;
 import openmods.api.IAddAwareTile;
 import openmods.api.INeighbourAwareTile;
@@ -25,7 +27,7 @@ import openmods.sync.SyncableFlags;
 import openmods.sync.SyncableUUID;
 import openmods.tileentity.SyncedTileEntity;
 
-public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwareTile, ISurfaceAttachment, INeighbourAwareTile, IAddAwareTile, ITickable {
+public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwareTile, ISurfaceAttachment, INeighbourAwareTile, IAddAwareTile, ITickable, IProfiledUpdate {
 
 	private static final float FULLY_OPEN = 1 - 0.001f; // epsilon required in 1.10, check later versions
 	public static final int OPENING_ANIMATION_TIME = 15;
@@ -38,7 +40,8 @@ public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwa
 	// can't be added as new flag, since animation depends on it
 	private SyncableBoolean isLocked;
 	private SyncableUUID trappedEntity;
-	private int tickSinceOpened;
+	// world time, so open trap doesn't have to tick to keep track of opening animation
+	private long openedTime;
 	private Entity cachedEntity;
 
 	public TileEntityBearTrap() {}
@@ -48,7 +51,7 @@ public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwa
 		syncMap.addUpdateListener(new ISyncListener() {
 			@Override
 			public void onSync(Set<ISyncableObject> changes) {
-				if (changes.contains(flags) && !isShut()) tickSinceOpened = 0;
+				if (changes.contains(flags) && !isShut()) openedTime = worldObj.getTotalWorldTime();
 			}
 		});
 	}
@@ -79,8 +82,13 @@ public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwa
 
 	@Override
 	public void update() {
-		tickSinceOpened++;
-		if (!worldObj.isRemote) {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
+		// open (or empty) trap waits for onEntityCollided
+		if (!worldObj.isRemote && trappedEntity.getValue() != null) {
 			immobilizeEntity();
 			sync();
 		}
@@ -119,8 +127,9 @@ public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwa
 
 	public void onEntityCollided(Entity entity) {
 		if (!worldObj.isRemote) {
-			if (entity instanceof EntityCreature && !isLocked.get() && tickSinceOpened > OPENING_ANIMATION_TIME) {
+			if (entity instanceof EntityCreature && !isLocked.get() && ticksSinceOpened() > OPENING_ANIMATION_TIME) {
 				close(entity);
+				sync();
 			}
 		}
 	}
@@ -135,12 +144,15 @@ public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwa
 	}
 
 	public int ticksSinceOpened() {
-		return tickSinceOpened;
+		return (int)Math.min(worldObj.getTotalWorldTime() - openedTime, Integer.MAX_VALUE);
 	}
 
 	@Override
 	public boolean onBlockActivated(EntityPlayer player, EnumHand hand, ItemStack heldItem, EnumFacing side, float hitX, float hitY, float hitZ) {
-		if (!worldObj.isRemote) open();
+		if (!worldObj.isRemote) {
+			open();
+			sync();
+		}
 		return true;
 	}
 
@@ -157,6 +169,7 @@ public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwa
 		if (flags.get(Flags.isShut)) {
 			flags.off(Flags.isShut);
 			trappedEntity.clear();
+			openedTime = worldObj.getTotalWorldTime();
 			playSoundAtBlock(OpenBlocks.Sounds.BLOCK_BEARTRAP_OPEN, 0.5F, 1.0F);
 			worldObj.notifyNeighborsOfStateChange(pos, getBlockType());
 		}
@@ -172,6 +185,13 @@ public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwa
 		updateRedstone();
 	}
 
+	@Override
+	public void validate() {
+		super.validate();
+		// not persisted - restart arming delay, so loaded trap doesn't snap on first collision
+		if (worldObj != null) openedTime = worldObj.getTotalWorldTime();
+	}
+
 	@Override
 	public void onAdded() {
 		updateRedstone();
@@ -182,6 +202,7 @@ public class TileEntityBearTrap extends SyncedTileEntity implements IActivateAwa
 			boolean isLocked = worldObj.isBlockIndirectlyGettingPowered(pos) > 0;
 			this.isLocked.set(isLocked);
 			if (isLocked) open();
+			sync();
 		}
 	}
 
@@ -50,8 +50,8 @@ public class TileEntityBuilderGuide extends TileEntityGuide implements IGuideAni
 	}
 
 	@Override
-	public void update() {
-		super.update();
+	public void updateProfiled() {
+		super.updateProfiled();
 		if (worldObj.isRemote) ticks++;
 	}
 
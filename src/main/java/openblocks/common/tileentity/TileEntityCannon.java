@@ -1,8 +1,12 @@
 package openblocks.common.tileentity;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.minecraft.block.Block;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.ITickable;
@@ -15,16 +19,19 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.items.IItemHandler;
 import openblocks.OpenBlocks;
 import openblocks.api.IPointable;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.entity.EntityItemProjectile;
 import openblocks.rpc.ITriggerable;
 import openmods.Log;
+import openmods.api.INeighbourAwareTile;
 import openmods.api.ISurfaceAttachment;
 import openmods.sync.SyncableDouble;
 import openmods.tileentity.SyncedTileEntity;
 import openmods.utils.InventoryUtils;
 import openmods.utils.render.GeometryUtils;
 
-public class TileEntityCannon extends SyncedTileEntity implements IPointable, ISurfaceAttachment, ITriggerable, ITickable {
+public class TileEntityCannon extends SyncedTileEntity implements IPointable, ISurfaceAttachment, ITriggerable, ITickable, INeighbourAwareTile, IProfiledUpdate {
 
 	/*
 	 * Blocks and Entities have a right-angle offset
@@ -52,8 +59,6 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 	public boolean renderLine = true;
 	private int ticksSinceLastFire = Integer.MAX_VALUE;
 
-	private Vec3d projectileOrigin = null;
-
 	@Override
 	protected void createSyncedFields() {
 		targetPitch = new SyncableDouble();
@@ -63,8 +68,11 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 
 	@Override
 	public void update() {
-		checkOrigin();
+		TickProfiler.instance.updateTile(this);
+	}
 
+	@Override
+	public void updateProfiled() {
 		if (Double.isNaN(currentPitch)) {
 			Log.warn("Pitch was NaN");
 			currentPitch = 45;
@@ -104,13 +112,57 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 		}
 	}
 
+	private static class NeighbourInventory {
+		private boolean isResolved;
+
+		private TileEntity tileEntity;
+
+		private IItemHandler handler;
+
+		// last slot that had items, scans start here
+		private int slotCursor;
+
+		public void reset() {
+			isResolved = false;
+			tileEntity = null;
+			handler = null;
+			slotCursor = 0;
+		}
+	}
+
+	private final NeighbourInventory[] neighbours = new NeighbourInventory[EnumFacing.VALUES.length];
+
+	{
+		for (int i = 0; i < neighbours.length; i++)
+			neighbours[i] = new NeighbourInventory();
+	}
+
+	private IItemHandler getNeighbourHandler(EnumFacing direction) {
+		final NeighbourInventory neighbour = neighbours[direction.ordinal()];
+		if (!neighbour.isResolved || (neighbour.tileEntity != null && neighbour.tileEntity.isInvalid())) {
+			final BlockPos neighbourPos = pos.offset(direction);
+			neighbour.reset();
+			neighbour.tileEntity = worldObj.getTileEntity(neighbourPos);
+			neighbour.handler = InventoryUtils.tryGetHandler(worldObj, neighbourPos, direction.getOpposite());
+			neighbour.isResolved = true;
+		}
+
+		return neighbour.handler;
+	}
+
 	private ItemStack findStack() {
 		for (EnumFacing direction : EnumFacing.VALUES) {
-			final IItemHandler inventory = InventoryUtils.tryGetHandler(worldObj, pos.offset(direction), direction.getOpposite());
+			final IItemHandler inventory = getNeighbourHandler(direction);
 			if (inventory != null) {
-				for (int i = 0; i < inventory.getSlots(); i++) {
-					final ItemStack stack = inventory.extractItem(i, 64, false);
-					if (stack != null) return stack;
+				final NeighbourInventory neighbour = neighbours[direction.ordinal()];
+				final int slots = inventory.getSlots();
+				for (int i = 0; i < slots; i++) {
+					final int slot = (neighbour.slotCursor + i) % slots;
+					final ItemStack stack = inventory.extractItem(slot, 64, false);
+					if (stack != null) {
+						neighbour.slotCursor = slot;
+						return stack;
+					}
 				}
 			}
 		}
@@ -118,11 +170,26 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 		return null;
 	}
 
+	private void invalidateNeighbours() {
+		for (NeighbourInventory neighbour : neighbours)
+			neighbour.reset();
+	}
+
+	@Override
+	public void onNeighbourChanged(Block block) {
+		invalidateNeighbours();
+	}
+
+	@Override
+	public void validate() {
+		super.validate();
+		invalidateNeighbours();
+	}
+
 	private void fireStack(ItemStack stack) {
 		final ITriggerable rpc = createServerRpcProxy(ITriggerable.class);
 		rpc.trigger();
 
-		// projectileOrigin is not used here, it's used for the calculations below.
 		EntityItem item = new EntityItemProjectile(worldObj, pos.getX() + 0.5, pos.getY(), pos.getZ(), stack);
 		item.setDefaultPickupDelay();
 
@@ -183,24 +250,33 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 		return motion;
 	}
 
-	private void checkOrigin() {
-		if (projectileOrigin == null) {
-			projectileOrigin = new Vec3d(pos).addVector(0.5, 0, 0.5);
+	private static class Aim {
+		public final double speed;
+		public final double yaw;
+		public final double pitch;
+
+		public Aim(double speed, double yaw, double pitch) {
+			this.speed = speed;
+			this.yaw = yaw;
+			this.pitch = pitch;
 		}
 	}
 
-	public void setTarget(BlockPos pos) {
-		checkOrigin();
-		// We target the middle of the block, at the very top.
-		final Vec3d target = new Vec3d(pos).addVector(0.5, 1, 0.5);
+	// aim depends only on offset between cannon and target, so it can be shared by every cannon
+	private static final Cache<BlockPos, Aim> AIM_CACHE = CacheBuilder.newBuilder().maximumSize(256).build();
+
+	private static Aim calculateAim(BlockPos offset) {
+		// Projectile is launched from the middle of the block, we target the middle of the block, at the very top.
+		final Vec3d origin = new Vec3d(0.5, 0, 0.5);
+		final Vec3d target = new Vec3d(offset).addVector(0.5, 1, 0.5);
 
 		// Horizontal distance between the origin and target
 		final double distHorizontal = KNOB_LOB_HORIZONTAL_MUL * Math.sqrt(
-				Math.pow(target.xCoord - projectileOrigin.xCoord, 2)
-						+ Math.pow(target.zCoord - projectileOrigin.zCoord, 2));
+				Math.pow(target.xCoord - origin.xCoord, 2)
+						+ Math.pow(target.zCoord - origin.zCoord, 2));
 
 		// No vertical multiplier is applied for decline slopes.
-		final double distVertical = Math.max((target.yCoord - projectileOrigin.yCoord) * KNOB_LOB_VERTICAL_MUL, 0);
+		final double distVertical = Math.max((target.yCoord - origin.yCoord) * KNOB_LOB_VERTICAL_MUL, 0);
 
 		// Calculate the arc of the trajectory
 		final float lobScale = (float)Math.min(KNOB_LOB_MAXIMUM_VALUE,
@@ -208,20 +284,32 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 						KNOB_LOB_BONUS + distHorizontal + distVertical));
 
 		// Calculate the velocity of the projectile
-		final Vec3d velocity = TileEntityCannonLogic.calculateTrajectory(projectileOrigin, target, lobScale);
+		final Vec3d velocity = TileEntityCannonLogic.calculateTrajectory(origin, target, lobScale);
 
 		// m/s applied to item.
 		final double speed = velocity.lengthVector();
-		targetSpeed.set(speed);
 
 		// reverse the vector to angles for cannon model
 		final Vec3d direction = velocity.normalize();
 		final double pitch = Math.asin(direction.yCoord);
 		final double yaw = Math.atan2(direction.zCoord, direction.xCoord);
 
+		return new Aim(speed, Math.toDegrees(yaw) + YAW_OFFSET_DEGREES, Math.toDegrees(pitch));
+	}
+
+	public void setTarget(BlockPos pos) {
+		final BlockPos offset = pos.subtract(this.pos);
+		Aim aim = AIM_CACHE.getIfPresent(offset);
+		if (aim == null) {
+			aim = calculateAim(offset);
+			AIM_CACHE.put(offset, aim);
+		}
+
+		targetSpeed.set(aim.speed);
+
 		// Set yaw and pitch
-		targetYaw.set(Math.toDegrees(yaw) + YAW_OFFSET_DEGREES);
-		targetPitch.set(Math.toDegrees(pitch));
+		targetYaw.set(aim.yaw);
+		targetPitch.set(aim.pitch);
 
 		currentYaw = targetYaw.get();
 		currentPitch = targetPitch.get();
@@ -15,6 +15,8 @@ import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import openblocks.Config;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openmods.api.IActivateAwareTile;
 import openmods.api.IAddAwareTile;
 import openmods.api.INeighbourAwareTile;
@@ -28,7 +30,7 @@ import openmods.sync.SyncableFloat;
 import openmods.tileentity.SyncedTileEntity;
 import openmods.utils.BlockUtils;
 
-public class TileEntityFan extends SyncedTileEntity implements IPlaceAwareTile, INeighbourAwareTile, IAddAwareTile, ITickable, IActivateAwareTile {
+public class TileEntityFan extends SyncedTileEntity implements IPlaceAwareTile, INeighbourAwareTile, IAddAwareTile, ITickable, IActivateAwareTile, IProfiledUpdate {
 
 	private static final int ANGLE_SPEED_PER_REDSTONE_POWER = 45;
 	private static final double CONE_HALF_APERTURE = 1.2 / 2.0;
@@ -63,6 +65,11 @@ public class TileEntityFan extends SyncedTileEntity implements IPlaceAwareTile,
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		float redstonePower = power.get() / 15.0f;
 
 		bladeSpeed = ANGLE_SPEED_PER_REDSTONE_POWER * redstonePower;
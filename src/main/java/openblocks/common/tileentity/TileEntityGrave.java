@@ -29,6 +29,8 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import openblocks.Config;
 import openblocks.OpenBlocks;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openmods.api.IActivateAwareTile;
 import openmods.api.IPlaceAwareTile;
 import openmods.inventory.GenericInventory;
@@ -37,7 +39,7 @@ import openmods.sync.SyncableString;
 import openmods.tileentity.SyncedTileEntity;
 import openmods.utils.BlockUtils;
 
-public class TileEntityGrave extends SyncedTileEntity implements IPlaceAwareTile, IInventoryProvider, IActivateAwareTile, ITickable {
+public class TileEntityGrave extends SyncedTileEntity implements IPlaceAwareTile, IInventoryProvider, IActivateAwareTile, ITickable, IProfiledUpdate {
 
 	private static final Predicate<EntityLiving> IS_MOB = new Predicate<EntityLiving>() {
 		@Override
@@ -62,6 +64,11 @@ public class TileEntityGrave extends SyncedTileEntity implements IPlaceAwareTile
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (!worldObj.isRemote) {
 			if (Config.spawnSkeletons && worldObj.getDifficulty() != EnumDifficulty.PEACEFUL && worldObj.rand.nextDouble() < Config.skeletonSpawnRate) {
 
@@ -28,6 +28,8 @@ import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import openblocks.Config;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.item.ItemGuide;
 import openblocks.shapes.CoordShape;
 import openblocks.shapes.GuideShape;
@@ -59,7 +61,7 @@ import openperipheral.api.adapter.method.ScriptCallable;
 import openperipheral.api.struct.ScriptStruct;
 import openperipheral.api.struct.StructField;
 
-public class TileEntityGuide extends DroppableTileEntity implements ISyncListener, INeighbourAwareTile, IAddAwareTile, ITickable {
+public class TileEntityGuide extends DroppableTileEntity implements ISyncListener, INeighbourAwareTile, IAddAwareTile, ITickable, IProfiledUpdate {
 
 	private interface IShapeManipulator {
 		public boolean activate(TileEntityGuide te, EntityPlayerMP player);
@@ -394,6 +396,11 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (worldObj.isRemote) {
 			if (timeSinceChange < 1.0) {
 				timeSinceChange = (float)Math.min(1.0f, timeSinceChange + 0.1);
@@ -5,14 +5,21 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.MobEffects;
 import net.minecraft.potion.PotionEffect;
 import net.minecraft.util.ITickable;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openmods.OpenMods;
 import openmods.tileentity.OpenTileEntity;
 import openmods.utils.BlockUtils;
 
-public class TileEntityHealBlock extends OpenTileEntity implements ITickable {
+public class TileEntityHealBlock extends OpenTileEntity implements ITickable, IProfiledUpdate {
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (worldObj.isRemote) return;
 
 		if (OpenMods.proxy.getTicks(worldObj) % 20 == 0) {
@@ -3,17 +3,15 @@ package openblocks.common.tileentity;
 import com.google.common.base.Preconditions;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.play.server.SPacketUpdateTileEntity;
 import net.minecraftforge.common.util.Constants;
-import net.minecraftforge.fml.relauncher.Side;
-import net.minecraftforge.fml.relauncher.SideOnly;
+import openblocks.OpenBlocks;
+import openblocks.common.ImaginationProfile;
 import openblocks.common.block.BlockImaginary;
 import openblocks.common.item.ItemImaginary;
-import openblocks.common.item.ItemImaginationGlasses;
 import openmods.OpenMods;
 import openmods.api.ICustomPickItem;
 import openmods.tileentity.OpenTileEntity;
@@ -59,9 +57,6 @@ public class TileEntityImaginary extends OpenTileEntity implements ICustomPickIt
 		public BlockImaginary.Shape readFromNBT(NBTTagCompound tag);
 	}
 
-	@SideOnly(Side.CLIENT)
-	public float visibility;
-
 	public TileEntityImaginary() {
 		shape = BlockImaginary.Shape.BLOCK;
 	}
@@ -92,6 +87,24 @@ public class TileEntityImaginary extends OpenTileEntity implements ICustomPickIt
 		return tag;
 	}
 
+	@Override
+	public void validate() {
+		super.validate();
+		if (worldObj != null && worldObj.isRemote) OpenBlocks.proxy.updateImaginaryBlock(this);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		if (worldObj != null && worldObj.isRemote) OpenBlocks.proxy.removeImaginaryBlock(this);
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		if (worldObj != null && worldObj.isRemote) OpenBlocks.proxy.removeImaginaryBlock(this);
+	}
+
 	private void readShapeData(NBTTagCompound tag) {
 		color = tag.hasKey("Color")? tag.getInteger("Color") : null;
 		isInverted = tag.getBoolean("IsInverted");
@@ -103,6 +116,9 @@ public class TileEntityImaginary extends OpenTileEntity implements ICustomPickIt
 			byte shapeId = tag.getByte("Shape");
 			shape = BlockImaginary.Shape.VALUES[shapeId];
 		}
+
+		// geometry of client side blocks is cached, so it needs to be updated on every change
+		if (worldObj != null && worldObj.isRemote && !isInvalid()) OpenBlocks.proxy.updateImaginaryBlock(this);
 	}
 
 	private NBTTagCompound writeShapeData(NBTTagCompound tag) {
@@ -141,18 +157,8 @@ public class TileEntityImaginary extends OpenTileEntity implements ICustomPickIt
 	}
 
 	public boolean is(Property what, EntityPlayer player) {
-		if (what == Property.VISIBLE && player.isSpectator()) return true;
-		if (what == Property.SOLID && isPencil()) return true;
-
-		ItemStack helmet = player.inventory.armorItemInSlot(3);
-
-		if (helmet == null) return isInverted();
-
-		Item item = helmet.getItem();
-
-		if (item instanceof ItemImaginationGlasses) return ((ItemImaginationGlasses)item).checkBlock(what, helmet, this);
-
-		return isInverted();
+		final boolean isPencil = isPencil();
+		return ImaginationProfile.getProfile(player).is(what, isPencil, isPencil? 0 : color, isInverted);
 	}
 
 	public boolean is(Property what, Entity e) {
@@ -177,9 +183,4 @@ public class TileEntityImaginary extends OpenTileEntity implements ICustomPickIt
 	public BlockImaginary.Type getType() {
 		return isPencil()? BlockImaginary.Type.PENCIL : BlockImaginary.Type.CRAYON;
 	}
-
-	@Override
-	public boolean hasFastRenderer() {
-		return true;
-	}
 }
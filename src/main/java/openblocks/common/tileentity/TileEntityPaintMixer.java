@@ -19,6 +19,8 @@ import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.oredict.OreDictionary;
 import openblocks.OpenBlocks;
 import openblocks.client.gui.GuiPaintMixer;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.container.ContainerPaintMixer;
 import openblocks.common.item.ItemPaintCan;
 import openblocks.rpc.IColorChanger;
@@ -45,7 +47,7 @@ import openmods.utils.MiscUtils;
 import openmods.utils.OptionalInt;
 import org.apache.commons.lang3.ArrayUtils;
 
-public class TileEntityPaintMixer extends DroppableTileEntity implements IInventoryProvider, IHasGui, IInventoryCallback, IColorChanger, ITickable {
+public class TileEntityPaintMixer extends DroppableTileEntity implements IInventoryProvider, IHasGui, IInventoryCallback, IColorChanger, ITickable, IProfiledUpdate {
 	private static final ItemStack PAINT_CAN = new ItemStack(OpenBlocks.Blocks.paintCan);
 	private static final ItemStack MILK_BUCKET = new ItemStack(Items.MILK_BUCKET);
 	public static final int PROGRESS_TICKS = 300;
@@ -125,6 +127,11 @@ public class TileEntityPaintMixer extends DroppableTileEntity implements IInvent
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (!worldObj.isRemote) {
 
 			if (logic.isWorking()) {
@@ -2,12 +2,31 @@ package openblocks.common.tileentity;
 
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import openblocks.OpenBlocks;
 import openmods.tileentity.OpenTileEntity;
 
 public class TileEntitySky extends OpenTileEntity {
 
 	public TileEntitySky() {}
 
+	@Override
+	public void validate() {
+		super.validate();
+		if (worldObj != null && worldObj.isRemote) OpenBlocks.proxy.updateSkyBlock(this);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		if (worldObj != null && worldObj.isRemote) OpenBlocks.proxy.removeSkyBlock(this);
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		if (worldObj != null && worldObj.isRemote) OpenBlocks.proxy.removeSkyBlock(this);
+	}
+
 	@Override
 	@SideOnly(Side.CLIENT)
 	public double getMaxRenderDistanceSquared() {
@@ -1,11 +1,14 @@
 package openblocks.common.tileentity;
 
+import com.google.common.collect.Lists;
+import java.util.List;
 import java.util.Random;
 import net.minecraft.block.Block;
+import net.minecraft.block.IGrowable;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Items;
 import net.minecraft.inventory.IInventory;
-import net.minecraft.item.ItemDye;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
@@ -22,13 +25,14 @@ import net.minecraftforge.items.CapabilityItemHandler;
 import openblocks.Config;
 import openblocks.OpenBlocks;
 import openblocks.client.gui.GuiSprinkler;
+import openblocks.common.BlockChangeTracker;
+import openblocks.common.BonemealQueue;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.container.ContainerSprinkler;
 import openmods.api.IHasGui;
 import openmods.api.INeighbourAwareTile;
 import openmods.api.ISurfaceAttachment;
-import openmods.fakeplayer.FakePlayerPool;
-import openmods.fakeplayer.FakePlayerPool.PlayerUser;
-import openmods.fakeplayer.OpenModsFakePlayer;
 import openmods.include.IncludeInterface;
 import openmods.inventory.GenericInventory;
 import openmods.inventory.IInventoryProvider;
@@ -39,7 +43,7 @@ import openmods.sync.SyncableFlags;
 import openmods.sync.SyncableTank;
 import openmods.tileentity.SyncedTileEntity;
 
-public class TileEntitySprinkler extends SyncedTileEntity implements ISurfaceAttachment, IInventoryProvider, IHasGui, ITickable, INeighbourAwareTile {
+public class TileEntitySprinkler extends SyncedTileEntity implements ISurfaceAttachment, IInventoryProvider, IHasGui, ITickable, INeighbourAwareTile, IProfiledUpdate {
 
 	private static final ItemStack BONEMEAL = new ItemStack(Items.DYE, 1, 15);
 
@@ -61,6 +65,14 @@ public class TileEntitySprinkler extends SyncedTileEntity implements ISurfaceAtt
 
 	public int ticks;
 
+	private final List<BlockPos> targets = Lists.newArrayList();
+
+	private int targetsRange = -1;
+
+	private int targetsChangeCount;
+
+	private int nextTarget;
+
 	private final GenericInventory inventory = registerInventoryCallback(new TileEntityInventory(this, "sprinkler", true, 9) {
 		@Override
 		public boolean isItemValidForSlot(int i, ItemStack itemstack) {
@@ -76,29 +88,52 @@ public class TileEntitySprinkler extends SyncedTileEntity implements ISurfaceAtt
 		tank = new SyncableTank(Config.sprinklerInternalTank, FluidRegistry.WATER, OpenBlocks.Fluids.xpJuice);
 	}
 
-	private static int selectFromRange(int range) {
-		return RANDOM.nextInt(2 * range + 1) - range;
+	private void scanTargets(int range) {
+		targets.clear();
+		for (int x = -range; x <= range; x++)
+			for (int z = -range; z <= range; z++)
+				for (int y = -1; y <= 1; y++) {
+					final BlockPos target = pos.add(x, y, z);
+					if (worldObj.getBlockState(target).getBlock() instanceof IGrowable) targets.add(target);
+				}
+
+		targetsRange = range;
+		targetsChangeCount = getChangeCount(range);
+	}
+
+	private int getChangeCount(int range) {
+		return BlockChangeTracker.instance.getChangeCount(worldObj,
+				pos.getX() - range, pos.getZ() - range,
+				pos.getX() + range, pos.getZ() + range);
+	}
+
+	private void updateTargets() {
+		final int range = Config.sprinklerEffectiveRange;
+		if (range != targetsRange || !BlockChangeTracker.instance.isTracked(worldObj) || getChangeCount(range) != targetsChangeCount) scanTargets(range);
+	}
+
+	private BlockPos selectTarget() {
+		// round-robin; no retry when target can't grow (like fully grown crops), otherwise remaining ones would get its share
+		if (nextTarget >= targets.size()) nextTarget = 0;
+		final BlockPos target = targets.get(nextTarget++);
+		final IBlockState state = worldObj.getBlockState(target);
+		final Block block = state.getBlock();
+		return (block instanceof IGrowable && ((IGrowable)block).canGrow(worldObj, target, state, false))? target : null;
 	}
 
 	private void attemptFertilize() {
 		if (!(worldObj instanceof WorldServer)) return;
 		final int fertilizerChance = hasBonemeal? Config.sprinklerBonemealFertizizeChance : Config.sprinklerFertilizeChance;
 		if (RANDOM.nextDouble() < 1.0 / fertilizerChance) {
-			FakePlayerPool.instance.executeOnPlayer((WorldServer)worldObj, new PlayerUser() {
-				@Override
-				public void usePlayer(OpenModsFakePlayer fakePlayer) {
-					final int x = selectFromRange(Config.sprinklerEffectiveRange);
-					final int z = selectFromRange(Config.sprinklerEffectiveRange);
-
-					for (int y = -1; y <= 1; y++) {
-						BlockPos target = pos.add(x, y, z);
+			updateTargets();
+			if (targets.isEmpty()) return;
 
-						if (ItemDye.applyBonemeal(BONEMEAL.copy(), worldObj, target, fakePlayer))
-							break;
+			// keep growth rate of single crop same as with old random (x, z) selection: every target is picked with 1/columns chance
+			final int columns = (2 * targetsRange + 1) * (2 * targetsRange + 1);
+			if (RANDOM.nextInt(columns) >= targets.size()) return;
 
-					}
-				}
-			});
+			final BlockPos target = selectTarget();
+			if (target != null) BonemealQueue.instance.queueFertilize((WorldServer)worldObj, target);
 		}
 	}
 
@@ -165,6 +200,11 @@ public class TileEntitySprinkler extends SyncedTileEntity implements ISurfaceAtt
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (!worldObj.isRemote) {
 
 			if (tank.getFluidAmount() <= 0) {
@@ -182,7 +222,7 @@ public class TileEntitySprinkler extends SyncedTileEntity implements ISurfaceAtt
 
 			if (ticks % Config.sprinklerWaterConsumeRate == 0) {
 				setEnabled(tank.drain(1, true) != null);
-				sync();
+				if (tank.isDirty() || flags.isDirty()) sync();
 			}
 		}
 
@@ -259,6 +299,13 @@ public class TileEntitySprinkler extends SyncedTileEntity implements ISurfaceAtt
 		this.needsTankUpdate = true;
 	}
 
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		targets.clear();
+		targetsRange = -1;
+	}
+
 	@Override
 	public void onNeighbourChanged(Block block) {
 		this.needsTankUpdate = true;
@@ -34,6 +34,8 @@ import openblocks.client.renderer.tileentity.tank.ITankRenderFluidData;
 import openblocks.client.renderer.tileentity.tank.NeighbourMap;
 import openblocks.client.renderer.tileentity.tank.TankRenderLogic;
 import openblocks.common.LiquidXpUtils;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.item.ItemTankBlock;
 import openmods.api.IActivateAwareTile;
 import openmods.api.ICustomHarvestDrops;
@@ -45,10 +47,9 @@ import openmods.sync.ISyncableObject;
 import openmods.sync.SyncMap;
 import openmods.sync.SyncableTank;
 import openmods.tileentity.SyncedTileEntity;
-import openmods.utils.EnchantmentUtils;
 import openmods.utils.ItemUtils;
 
-public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTile, IPlaceAwareTile, INeighbourAwareTile, ICustomHarvestDrops, ITickable {
+public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTile, IPlaceAwareTile, INeighbourAwareTile, ICustomHarvestDrops, ITickable, IProfiledUpdate {
 
 	private class RenderUpdateListeners implements ISyncListener {
 
@@ -296,7 +297,7 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 				int xp = LiquidXpUtils.liquidToXpRatio(drained.amount);
 				if (xp > 0) {
 					int actualDrain = LiquidXpUtils.xpToLiquidRatio(xp);
-					EnchantmentUtils.addPlayerXP(player, xp);
+					LiquidXpUtils.addPlayerXP(player, xp);
 					tankCapabilityWrapper.drain(actualDrain, true);
 					return true;
 				}
@@ -324,6 +325,11 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		ticksSinceLastSync++;
 		ticksSinceLastUpdate++;
 
@@ -1,24 +1,20 @@
 package openblocks.common.tileentity;
 
-import com.google.common.base.Predicate;
 import com.google.common.collect.Sets;
-import java.util.List;
 import java.util.Set;
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ITickable;
-import net.minecraft.util.math.RayTraceResult;
-import net.minecraft.util.math.RayTraceResult.Type;
 import openblocks.OpenBlocks;
-import openblocks.OpenBlocks.Blocks;
+import openblocks.common.TargetProjectileTracker;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openmods.Log;
 import openmods.api.ISurfaceAttachment;
 import openmods.reflection.SafeClassLoad;
 import openmods.tileentity.OpenTileEntity;
-import openmods.utils.EntityUtils;
 
-public class TileEntityTarget extends OpenTileEntity implements ISurfaceAttachment, ITickable {
+public class TileEntityTarget extends OpenTileEntity implements ISurfaceAttachment, ITickable, IProfiledUpdate {
 
 	private int strength = 0;
 	private int tickCounter = -1;
@@ -36,19 +32,19 @@ public class TileEntityTarget extends OpenTileEntity implements ISurfaceAttachme
 		addClass(FLANS_BULLET);
 	}
 
-	private final static Predicate<Entity> PROJECTILE_SELECTOR = new Predicate<Entity>() {
-		@Override
-		public boolean apply(Entity target) {
-			return EXTRA_PROJECTILE_CLASSES.contains(target.getClass());
-		}
-	};
+	public static boolean isTrackedProjectile(Entity entity) {
+		return EXTRA_PROJECTILE_CLASSES.contains(entity.getClass());
+	}
 
 	public TileEntityTarget() {}
 
 	@Override
 	public void update() {
-		if (!worldObj.isRemote && !EXTRA_PROJECTILE_CLASSES.isEmpty()) predictOtherProjectiles();
+		TickProfiler.instance.updateTile(this);
+	}
 
+	@Override
+	public void updateProfiled() {
 		tickCounter--;
 		if (tickCounter == 0) {
 			tickCounter = -1;
@@ -57,18 +53,22 @@ public class TileEntityTarget extends OpenTileEntity implements ISurfaceAttachme
 		}
 	}
 
-	private void predictOtherProjectiles() {
-		final List<Entity> projectiles = worldObj.getEntitiesWithinAABB(Entity.class, getBB().expand(10, 10, 10), PROJECTILE_SELECTOR);
+	@Override
+	public void validate() {
+		super.validate();
+		if (worldObj != null && !worldObj.isRemote) TargetProjectileTracker.instance.addTarget(this);
+	}
 
-		IBlockState state = null;
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		if (worldObj != null && !worldObj.isRemote) TargetProjectileTracker.instance.removeTarget(this);
+	}
 
-		for (Entity projectile : projectiles) {
-			RayTraceResult hit = EntityUtils.raytraceEntity(projectile);
-			if (hit.typeOfHit == Type.BLOCK && pos.equals(hit.getBlockPos())) {
-				if (state == null) state = worldObj.getBlockState(getPos());
-				Blocks.target.onTargetHit(worldObj, pos, state, hit.hitVec);
-			}
-		}
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		if (!worldObj.isRemote) TargetProjectileTracker.instance.removeTarget(this);
 	}
 
 	public int getRedstoneStrength() {
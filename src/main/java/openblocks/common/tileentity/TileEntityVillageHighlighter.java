@@ -4,25 +4,24 @@ import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
 import java.util.List;
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.util.ITickable;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.village.Village;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import openblocks.OpenBlocks;
+import openblocks.common.VillageIndex;
 import openblocks.common.block.BlockVillageHighlighter;
-import openmods.OpenMods;
 import openmods.sync.SyncableIntArray;
 import openmods.tileentity.SyncedTileEntity;
 
-public class TileEntityVillageHighlighter extends SyncedTileEntity implements ITickable {
+public class TileEntityVillageHighlighter extends SyncedTileEntity implements VillageIndex.IVillageListener {
 
 	public static int VALUES_PER_VILLAGE = 7;
 
 	private SyncableIntArray villageData;
 
-	private boolean previousBreedStatus = false;
+	private boolean canBreed = false;
 
 	public TileEntityVillageHighlighter() {}
 
@@ -32,33 +31,57 @@ public class TileEntityVillageHighlighter extends SyncedTileEntity implements IT
 	}
 
 	@Override
-	public void update() {
-		if (!worldObj.isRemote) {
-			if (OpenMods.proxy.getTicks(worldObj) % 10 == 0 && isEnabled()) {
-				List<Integer> tmpDataList = Lists.newArrayList();
-				for (Village village : worldObj.villageCollectionObj.getVillageList()) {
-					if (village.isBlockPosWithinSqVillageRadius(pos)) {
-						tmpDataList.add(village.getVillageRadius());
-						BlockPos d = village.getCenter().subtract(pos);
-						tmpDataList.add(d.getX());
-						tmpDataList.add(d.getY());
-						tmpDataList.add(d.getZ());
-						tmpDataList.add(village.getNumVillageDoors());
-						tmpDataList.add(village.getNumVillagers());
-						tmpDataList.add(System.identityHashCode(village));
-					}
-				}
-				villageData.setValue(Ints.toArray(tmpDataList));
-				sync();
-				boolean canBreed = canVillagersBreed();
-				if (previousBreedStatus != canBreed) {
-					worldObj.notifyNeighborsOfStateChange(pos, OpenBlocks.Blocks.villageHighlighter);
-					previousBreedStatus = canBreed;
-				}
+	public void validate() {
+		super.validate();
+		VillageIndex.instance.addListener(worldObj, this);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		VillageIndex.instance.removeListener(worldObj, this);
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		VillageIndex.instance.removeListener(worldObj, this);
+	}
+
+	@Override
+	public BlockPos getListenerPos() {
+		return pos;
+	}
+
+	@Override
+	public void onVillagesChanged(List<Village> villages) {
+		if (isEnabled()) {
+			List<Integer> tmpDataList = Lists.newArrayList();
+			for (Village village : villages) {
+				tmpDataList.add(village.getVillageRadius());
+				BlockPos d = village.getCenter().subtract(pos);
+				tmpDataList.add(d.getX());
+				tmpDataList.add(d.getY());
+				tmpDataList.add(d.getZ());
+				tmpDataList.add(village.getNumVillageDoors());
+				tmpDataList.add(village.getNumVillagers());
+				tmpDataList.add(System.identityHashCode(village));
 			}
+			villageData.setValue(Ints.toArray(tmpDataList));
+			sync();
+		}
+
+		final boolean canBreed = canVillagersBreed(villages);
+		if (this.canBreed != canBreed) {
+			this.canBreed = canBreed;
+			worldObj.notifyNeighborsOfStateChange(pos, OpenBlocks.Blocks.villageHighlighter);
 		}
 	}
 
+	public void onPowerChanged() {
+		if (!worldObj.isRemote) onVillagesChanged(VillageIndex.instance.getVillages(worldObj, pos));
+	}
+
 	private boolean isEnabled() {
 		final IBlockState state = worldObj.getBlockState(pos);
 		return state.getBlock() instanceof BlockVillageHighlighter && state.getValue(BlockVillageHighlighter.POWERED);
@@ -80,20 +103,20 @@ public class TileEntityVillageHighlighter extends SyncedTileEntity implements IT
 		return 65536.0D;
 	}
 
-	public boolean canVillagersBreed() {
-		if (worldObj.isRemote) return false;
-
-		for (Village village : worldObj.villageCollectionObj.getVillageList()) {
-			if (village.isBlockPosWithinSqVillageRadius(pos)) {
-				int i = (int)(village.getNumVillageDoors() * 0.35D);
-				if (village.getNumVillagers() < i) { return true; }
-			}
+	private static boolean canVillagersBreed(List<Village> villages) {
+		for (Village village : villages) {
+			int i = (int)(village.getNumVillageDoors() * 0.35D);
+			if (village.getNumVillagers() < i) { return true; }
 		}
 		return false;
 	}
 
+	public boolean canVillagersBreed() {
+		return canBreed;
+	}
+
 	public int getSignalStrength() {
-		return canVillagersBreed()? 15 : 0;
+		return canBreed? 15 : 0;
 	}
 
 }
@@ -18,6 +18,9 @@ import net.minecraftforge.items.CapabilityItemHandler;
 import openblocks.OpenBlocks;
 import openblocks.client.gui.GuiXPBottler;
 import openblocks.common.LiquidXpUtils;
+import openblocks.common.MachineState;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.container.ContainerXPBottler;
 import openblocks.common.tileentity.TileEntityXPBottler.AutoSlots;
 import openmods.api.IHasGui;
@@ -47,7 +50,7 @@ import openmods.utils.bitmap.IRpcDirectionBitMap;
 import openmods.utils.bitmap.IRpcIntBitMap;
 import openmods.utils.bitmap.IWriteableBitMap;
 
-public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryProvider, IHasGui, IConfigurableGuiSlots<AutoSlots>, INeighbourAwareTile, INeighbourTeAwareTile, ITickable {
+public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryProvider, IHasGui, IConfigurableGuiSlots<AutoSlots>, INeighbourAwareTile, INeighbourTeAwareTile, ITickable, IProfiledUpdate {
 
 	public static final int TANK_CAPACITY = LiquidXpUtils.xpToLiquidRatio(LiquidXpUtils.XP_PER_BOTTLE);
 	public static final int PROGRESS_TICKS = 40;
@@ -57,6 +60,10 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 
 	private boolean needsTankUpdate;
 
+	private final MachineState machineState = new MachineState();
+
+	private ItemMover mover;
+
 	public static enum Slots {
 		input,
 		output
@@ -108,6 +115,8 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 	}
 
 	public TileEntityXPBottler() {
+		inventory.addCallback(machineState);
+
 		sided.registerSlot(Slots.input, glassSides, true, false);
 		sided.registerSlot(Slots.output, xpBottleSides, false, true);
 
@@ -140,46 +149,61 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 
 	@Override
 	public void update() {
-		if (!worldObj.isRemote) {
+		TickProfiler.instance.updateTile(this);
+	}
 
-			if (automaticSlots.get(AutoSlots.xp)) {
-				if (needsTankUpdate) {
-					tank.updateNeighbours(worldObj, pos);
-					needsTankUpdate = false;
-				}
+	@Override
+	public void updateProfiled() {
+		if (!worldObj.isRemote) {
+			machineState.trackTankLevel(tank.getFluidAmount());
 
-				tank.fillFromSides(10, worldObj, pos, xpSides.getValue());
+			if (machineState.shouldUpdate()) {
+				updateMachine();
+				machineState.afterUpdate(logic.isWorking());
+				sync();
 			}
+		}
+	}
 
-			final ItemMover mover = new ItemMover(worldObj, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+	private ItemMover getMover() {
+		if (mover == null) mover = new ItemMover(worldObj, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+		return mover;
+	}
 
-			if (shouldAutoOutput() && hasOutputStack()) {
-				mover.setSides(xpBottleSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
+	private void updateMachine() {
+		if (automaticSlots.get(AutoSlots.xp)) {
+			if (needsTankUpdate) {
+				tank.updateNeighbours(worldObj, pos);
+				needsTankUpdate = false;
 			}
 
-			if (shouldAutoInput() && !hasGlassInInput()) {
-				mover.setSides(glassSides.getValue()).pullToSlot(inventory.getHandler(), Slots.input.ordinal());
-			}
+			tank.fillFromSides(10, worldObj, pos, xpSides.getValue());
+		}
 
-			logic.checkWorkCondition(hasSpaceInOutput() && hasGlassInInput() && isTankFull());
+		if (shouldAutoOutput() && hasOutputStack()) {
+			getMover().setSides(xpBottleSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
+		}
 
-			if (logic.update()) {
-				playSoundAtBlock(OpenBlocks.Sounds.BLOCK_XPBOTTLER_DONE, 0.5f, 0.8f);
-				inventory.decrStackSize(Slots.input.ordinal(), 1);
-				tank.setFluid(null);
+		if (shouldAutoInput() && !hasGlassInInput()) {
+			getMover().setSides(glassSides.getValue()).pullToSlot(inventory.getHandler(), Slots.input.ordinal());
+		}
 
-				ItemStack outputStack = inventory.getStackInSlot(Slots.output.ordinal());
+		logic.checkWorkCondition(hasSpaceInOutput() && hasGlassInInput() && isTankFull());
 
-				if (outputStack == null) {
-					inventory.setInventorySlotContents(Slots.output.ordinal(), XP_BOTTLE.copy());
-				} else {
-					outputStack.stackSize++;
-				}
+		if (logic.update()) {
+			playSoundAtBlock(OpenBlocks.Sounds.BLOCK_XPBOTTLER_DONE, 0.5f, 0.8f);
+			inventory.decrStackSize(Slots.input.ordinal(), 1);
+			tank.setFluid(null);
 
-				inventory.onInventoryChanged(Slots.output.ordinal());
+			ItemStack outputStack = inventory.getStackInSlot(Slots.output.ordinal());
+
+			if (outputStack == null) {
+				inventory.setInventorySlotContents(Slots.output.ordinal(), XP_BOTTLE.copy());
+			} else {
+				outputStack.stackSize++;
 			}
 
-			sync();
+			inventory.onInventoryChanged(Slots.output.ordinal());
 		}
 	}
 
@@ -291,15 +315,30 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 	public void validate() {
 		super.validate();
 		this.needsTankUpdate = true;
+		machineState.register(worldObj);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		machineState.unregister();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		machineState.unregister();
 	}
 
 	@Override
 	public void onNeighbourChanged(Block block) {
 		this.needsTankUpdate = true;
+		machineState.wakeUp();
 	}
 
 	@Override
 	public void onNeighbourTeChanged(BlockPos pos) {
 		this.needsTankUpdate = true;
+		machineState.wakeUp();
 	}
 }
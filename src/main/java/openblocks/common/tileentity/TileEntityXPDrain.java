@@ -1,6 +1,7 @@
 package openblocks.common.tileentity;
 
 import java.util.List;
+import net.minecraft.block.Block;
 import net.minecraft.entity.item.EntityXPOrb;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.SoundEvents;
@@ -10,49 +11,93 @@ import net.minecraft.util.ITickable;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
+import openblocks.Config;
 import openblocks.OpenBlocks;
 import openblocks.common.LiquidXpUtils;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openmods.OpenMods;
+import openmods.api.INeighbourAwareTile;
 import openmods.tileentity.OpenTileEntity;
 import openmods.utils.BlockUtils;
 import openmods.utils.CompatibilityUtils;
-import openmods.utils.EnchantmentUtils;
 
-public class TileEntityXPDrain extends OpenTileEntity implements ITickable {
+public class TileEntityXPDrain extends OpenTileEntity implements ITickable, INeighbourAwareTile, IProfiledUpdate {
+
+	private IFluidHandler targetHandler;
+
+	private TileEntity targetTile;
+
+	private boolean targetValid;
+
+	@Override
+	public void validate() {
+		super.validate();
+		invalidateTarget();
+	}
+
+	@Override
+	public void onNeighbourChanged(Block block) {
+		invalidateTarget();
+	}
+
+	private void invalidateTarget() {
+		targetValid = false;
+		targetHandler = null;
+		targetTile = null;
+	}
+
+	private IFluidHandler getTargetHandler() {
+		if (targetTile != null && targetTile.isInvalid()) invalidateTarget();
+
+		if (!targetValid) {
+			final BlockPos down = getPos().down();
+			// not cached, since chunk load does not trigger neighbour update
+			if (!worldObj.isBlockLoaded(down)) return null;
+
+			targetValid = true;
+			final TileEntity te = worldObj.getTileEntity(down);
+			if (te != null && !te.isInvalid()) {
+				targetTile = te;
+				targetHandler = CompatibilityUtils.getFluidHandler(te, EnumFacing.UP);
+			}
+		}
+
+		return targetHandler;
+	}
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (!worldObj.isRemote) {
 			final List<EntityXPOrb> xpOrbsOnGrid = getXPOrbsOnGrid();
 			final List<EntityPlayer> playersOnGrid = getPlayersOnGrid();
 
 			if (!xpOrbsOnGrid.isEmpty() || !playersOnGrid.isEmpty()) {
-				final BlockPos down = getPos().down();
+				final IFluidHandler handler = getTargetHandler();
 
-				if (worldObj.isBlockLoaded(down)) {
-					final TileEntity te = worldObj.getTileEntity(down);
+				if (handler != null) {
+					for (EntityXPOrb orb : xpOrbsOnGrid)
+						tryConsumeOrb(handler, orb);
 
-					if (te != null && !te.isInvalid()) {
-						final IFluidHandler maybeHandler = CompatibilityUtils.getFluidHandler(te, EnumFacing.UP);
-
-						if (maybeHandler != null) {
-							for (EntityXPOrb orb : xpOrbsOnGrid)
-								tryConsumeOrb(maybeHandler, orb);
-
-							for (EntityPlayer player : playersOnGrid)
-								tryDrainPlayer(maybeHandler, player);
-						}
-					}
+					for (EntityPlayer player : playersOnGrid)
+						tryDrainPlayer(handler, player);
 				}
 			}
 		}
 	}
 
 	protected void tryDrainPlayer(IFluidHandler tank, EntityPlayer player) {
-		int playerXP = EnchantmentUtils.getPlayerXP(player);
+		int playerXP = LiquidXpUtils.getPlayerXP(player);
 		if (playerXP <= 0) return;
 
-		int maxDrainedXp = Math.min(4, playerXP);
+		// 0 = limited only by target tank
+		int maxDrainedXp = Config.xpDrainRate > 0? Math.min(Config.xpDrainRate, playerXP) : playerXP;
+		maxDrainedXp = Math.min(maxDrainedXp, LiquidXpUtils.liquidToXpRatio(Integer.MAX_VALUE));
 
 		int xpAmount = LiquidXpUtils.xpToLiquidRatio(maxDrainedXp);
 		FluidStack xpStack = new FluidStack(OpenBlocks.Fluids.xpJuice, xpAmount);
@@ -61,6 +106,8 @@ public class TileEntityXPDrain extends OpenTileEntity implements ITickable {
 
 		// rounding down, so we only use as much as we can
 		int acceptedXP = LiquidXpUtils.liquidToXpRatio(maxAcceptedLiquid);
+		if (acceptedXP <= 0) return;
+
 		int acceptedLiquid = LiquidXpUtils.xpToLiquidRatio(acceptedXP);
 
 		xpStack.amount = acceptedLiquid;
@@ -72,7 +119,7 @@ public class TileEntityXPDrain extends OpenTileEntity implements ITickable {
 			playSoundAtBlock(SoundEvents.ENTITY_EXPERIENCE_ORB_PICKUP, 0.1F, 0.5F * ((worldObj.rand.nextFloat() - worldObj.rand.nextFloat()) * 0.7F + 1.8F));
 		}
 
-		EnchantmentUtils.addPlayerXP(player, -acceptedXP);
+		LiquidXpUtils.addPlayerXP(player, -acceptedXP);
 	}
 
 	protected void tryConsumeOrb(IFluidHandler tank, EntityXPOrb orb) {
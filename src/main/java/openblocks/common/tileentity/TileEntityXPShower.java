@@ -10,6 +10,8 @@ import net.minecraftforge.fluids.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 import openblocks.OpenBlocks;
 import openblocks.common.LiquidXpUtils;
+import openblocks.common.TickProfiler;
+import openblocks.common.TickProfiler.IProfiledUpdate;
 import openblocks.common.block.BlockXPShower;
 import openblocks.common.entity.EntityXPOrbNoFly;
 import openmods.OpenMods;
@@ -17,7 +19,7 @@ import openmods.liquids.GenericTank;
 import openmods.sync.SyncableBoolean;
 import openmods.tileentity.SyncedTileEntity;
 
-public class TileEntityXPShower extends SyncedTileEntity implements ITickable {
+public class TileEntityXPShower extends SyncedTileEntity implements ITickable, IProfiledUpdate {
 
 	private static final FluidStack XP_FLUID = new FluidStack(OpenBlocks.Fluids.xpJuice, 1);
 
@@ -37,6 +39,11 @@ public class TileEntityXPShower extends SyncedTileEntity implements ITickable {
 
 	@Override
 	public void update() {
+		TickProfiler.instance.updateTile(this);
+	}
+
+	@Override
+	public void updateProfiled() {
 		if (!worldObj.isRemote) {
 			trySpawnXpOrbs();
 		} else {
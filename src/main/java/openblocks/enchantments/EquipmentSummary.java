@@ -0,0 +1,188 @@
+package openblocks.enchantments;
+
+import java.util.concurrent.Callable;
+import javax.annotation.Nullable;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.enchantment.EnchantmentHelper;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.EntityEquipmentSlot;
+import net.minecraft.item.ItemArmor;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityInject;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.event.entity.living.LivingEquipmentChangeEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import openblocks.OpenBlocks;
+import openblocks.OpenBlocks.Enchantments;
+
+/**
+ * Per-player summary of enchantment levels used by flim-flam and explosive handlers.
+ * Recalculated only after equipment change (event or different stack in slot), not on every combat event.
+ */
+public class EquipmentSummary {
+
+	private static final EntityEquipmentSlot[] SLOTS = EntityEquipmentSlot.values();
+
+	private static final ItemStack GUNPOWDER = new ItemStack(Items.GUNPOWDER);
+
+	private final ItemStack[] equipment = new ItemStack[SLOTS.length];
+
+	private final int[] explosiveLevels = new int[SLOTS.length];
+
+	private int flimFlamToolLevel;
+
+	private int flimFlamArmorLevel;
+
+	private int gunpowderSlot = -1;
+
+	private boolean isDirty = true;
+
+	public void markDirty() {
+		isDirty = true;
+	}
+
+	private static int getLevel(Enchantment enchantment, ItemStack stack) {
+		return (enchantment != null && stack != null)? EnchantmentHelper.getEnchantmentLevel(enchantment, stack) : 0;
+	}
+
+	private boolean isEquipmentChanged(EntityPlayer player) {
+		for (EntityEquipmentSlot slot : SLOTS)
+			if (player.getItemStackFromSlot(slot) != equipment[slot.ordinal()]) return true;
+
+		return false;
+	}
+
+	private void update(EntityPlayer player) {
+		if (!isDirty && !isEquipmentChanged(player)) return;
+
+		flimFlamArmorLevel = 0;
+		for (EntityEquipmentSlot slot : SLOTS) {
+			final ItemStack stack = player.getItemStackFromSlot(slot);
+			final int index = slot.ordinal();
+			equipment[index] = stack;
+
+			if (slot.getSlotType() == EntityEquipmentSlot.Type.ARMOR) {
+				explosiveLevels[index] = (stack != null && stack.getItem() instanceof ItemArmor)? getLevel(Enchantments.explosive, stack) : 0;
+				flimFlamArmorLevel += getLevel(Enchantments.flimFlam, stack);
+			} else {
+				explosiveLevels[index] = 0;
+			}
+		}
+
+		flimFlamToolLevel = getLevel(Enchantments.flimFlam, equipment[EntityEquipmentSlot.MAINHAND.ordinal()]);
+		isDirty = false;
+	}
+
+	public int getFlimFlamToolLevel() {
+		return flimFlamToolLevel;
+	}
+
+	public int getFlimFlamArmorLevel() {
+		return flimFlamArmorLevel;
+	}
+
+	public int getExplosiveLevel(EntityEquipmentSlot slot) {
+		return explosiveLevels[slot.ordinal()];
+	}
+
+	private static boolean hasGunpowder(ItemStack[] inventory, int slot, int amount) {
+		if (slot < 0 || slot >= inventory.length) return false;
+		final ItemStack stack = inventory[slot];
+		return stack != null && GUNPOWDER.isItemEqual(stack) && stack.stackSize >= amount;
+	}
+
+	/**
+	 * @return main inventory slot with at least given amount of gunpowder or -1. Last found slot is checked first, full scan happens only when it's no longer valid.
+	 */
+	public int findGunpowderSlot(EntityPlayer player, int amount) {
+		final ItemStack[] inventory = player.inventory.mainInventory;
+		if (hasGunpowder(inventory, gunpowderSlot, amount)) return gunpowderSlot;
+
+		for (int i = 0; i < inventory.length; i++) {
+			if (hasGunpowder(inventory, i, amount)) {
+				gunpowderSlot = i;
+				return i;
+			}
+		}
+
+		gunpowderSlot = -1;
+		return -1;
+	}
+
+	private static final ResourceLocation CAPABILITY_KEY = OpenBlocks.location("equipment_summary");
+
+	@CapabilityInject(EquipmentSummary.class)
+	private static final Capability<EquipmentSummary> CAPABILITY = null;
+
+	private static class CapabilityInjector {
+
+		@SubscribeEvent
+		public void attachCapability(AttachCapabilitiesEvent<Entity> evt) {
+			if (!(evt.getObject() instanceof EntityPlayer)) return;
+
+			evt.addCapability(CAPABILITY_KEY, new ICapabilityProvider() {
+
+				private final EquipmentSummary state = new EquipmentSummary();
+
+				@Override
+				public boolean hasCapability(Capability<?> capability, @Nullable EnumFacing facing) {
+					return capability == CAPABILITY;
+				}
+
+				@Override
+				@SuppressWarnings("unchecked")
+				public <T> T getCapability(Capability<T> capability, @Nullable EnumFacing facing) {
+					if (capability == CAPABILITY) return (T)state;
+					return null;
+				}
+			});
+		}
+
+		@SubscribeEvent
+		public void onEquipmentChange(LivingEquipmentChangeEvent evt) {
+			final EquipmentSummary summary = evt.getEntityLiving().getCapability(CAPABILITY, EnumFacing.UP);
+			if (summary != null) summary.markDirty();
+		}
+	}
+
+	private static boolean isRegistered;
+
+	public static void registerCapability() {
+		if (isRegistered) return;
+		isRegistered = true;
+
+		CapabilityManager.INSTANCE.register(EquipmentSummary.class, new Capability.IStorage<EquipmentSummary>() {
+			@Override
+			public NBTBase writeNBT(Capability<EquipmentSummary> capability, EquipmentSummary instance, EnumFacing side) {
+				return null;
+			}
+
+			@Override
+			public void readNBT(Capability<EquipmentSummary> capability, EquipmentSummary instance, EnumFacing side, NBTBase nbt) {}
+
+		}, new Callable<EquipmentSummary>() {
+			@Override
+			public EquipmentSummary call() throws Exception {
+				return new EquipmentSummary();
+			}
+		});
+
+		MinecraftForge.EVENT_BUS.register(new CapabilityInjector());
+	}
+
+	@Nullable
+	public static EquipmentSummary get(EntityPlayer player) {
+		final EquipmentSummary summary = player.getCapability(CAPABILITY, EnumFacing.UP);
+		if (summary != null) summary.update(player);
+		return summary;
+	}
+}
@@ -8,14 +8,11 @@ import java.util.Map;
 import java.util.Set;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.settings.KeyBinding;
-import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.player.InventoryPlayer;
-import net.minecraft.init.Items;
 import net.minecraft.inventory.EntityEquipmentSlot;
-import net.minecraft.item.ItemArmor;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.EntityDamageSource;
@@ -24,7 +21,6 @@ import net.minecraftforge.event.entity.living.LivingEvent.LivingJumpEvent;
 import net.minecraftforge.event.entity.living.LivingFallEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import openblocks.Config;
-import openblocks.OpenBlocks.Enchantments;
 import openmods.OpenMods;
 
 public class ExplosiveEnchantmentsHandler {
@@ -101,8 +97,6 @@ public class ExplosiveEnchantmentsHandler {
 
 	private Map<Entity, JumpInfo> jumpBoosts = new MapMaker().weakKeys().makeMap();
 
-	private static final ItemStack gunpowder = new ItemStack(Items.GUNPOWDER);
-
 	private static void useItems(EntityPlayer player, int gunpowderSlot, EntityEquipmentSlot armorSlot, int gunpowderAmout) {
 		if (player.capabilities.isCreativeMode) return;
 
@@ -116,29 +110,24 @@ public class ExplosiveEnchantmentsHandler {
 		if (resource.stackSize <= 0) inventory.mainInventory[gunpowderSlot] = null;
 	}
 
-	private static EnchantmentLevel tryUseEnchantment(EntityPlayer player, EntityEquipmentSlot slot) {
-		ItemStack armor = player.getItemStackFromSlot(slot);
-		if (armor == null || !(armor.getItem() instanceof ItemArmor)) return null;
-
-		final InventoryPlayer inventory = player.inventory;
-		int explosiveLevel = EnchantmentHelper.getEnchantmentLevel(Enchantments.explosive, armor);
+	private static EnchantmentLevel tryUseEnchantment(EntityPlayer player, EquipmentSummary summary, EntityEquipmentSlot slot) {
+		int explosiveLevel = summary.getExplosiveLevel(slot);
 		if (explosiveLevel <= 0 || explosiveLevel > LEVELS.length) return null;
 		EnchantmentLevel level = LEVELS[explosiveLevel - 1];
 
-		for (int i = 0; i < inventory.mainInventory.length; i++) {
-			ItemStack stack = inventory.mainInventory[i];
-			if (stack != null && gunpowder.isItemEqual(stack) && stack.stackSize >= level.gunpowderNeeded) {
-				useItems(player, i, slot, level.gunpowderNeeded);
-				return level;
-			}
-		}
+		final int gunpowderSlot = summary.findGunpowderSlot(player, level.gunpowderNeeded);
+		if (gunpowderSlot < 0) return null;
 
-		return null;
+		useItems(player, gunpowderSlot, slot, level.gunpowderNeeded);
+		return level;
 	}
 
 	private EnchantmentLevel tryUseUpperArmor(EntityPlayer player) {
+		final EquipmentSummary summary = EquipmentSummary.get(player);
+		if (summary == null) return null;
+
 		for (EntityEquipmentSlot armorPart : protectionParts) {
-			EnchantmentLevel result = tryUseEnchantment(player, armorPart);
+			EnchantmentLevel result = tryUseEnchantment(player, summary, armorPart);
 			if (result != null) return result;
 		}
 
@@ -151,7 +140,10 @@ public class ExplosiveEnchantmentsHandler {
 		if (evt.getDistance() > 4 && !e.isSneaking() && e instanceof EntityPlayer) {
 			EntityPlayer player = (EntityPlayer)e;
 
-			EnchantmentLevel level = tryUseEnchantment(player, EntityEquipmentSlot.FEET);
+			final EquipmentSummary summary = EquipmentSummary.get(player);
+			if (summary == null) return;
+
+			EnchantmentLevel level = tryUseEnchantment(player, summary, EntityEquipmentSlot.FEET);
 			if (level == null) return;
 			JumpInfo boost = new JumpInfo(level, evt.getDistance());
 			level.createJumpExplosion(player);
@@ -1,18 +1,12 @@
 package openblocks.enchantments;
 
-import com.google.common.collect.Lists;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Callable;
 import javax.annotation.Nullable;
-import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTTagInt;
 import net.minecraft.util.EnumFacing;
@@ -26,9 +20,9 @@ import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import openblocks.OpenBlocks;
-import openblocks.OpenBlocks.Enchantments;
 import openblocks.api.IFlimFlamDescription;
 import openblocks.enchantments.flimflams.FlimFlamRegistry;
+import openblocks.enchantments.flimflams.WeightedAliasTable;
 import openmods.Log;
 
 public class FlimFlamEnchantmentsHandler {
@@ -127,8 +121,11 @@ public class FlimFlamEnchantmentsHandler {
 		// flim flam yerself?
 		if (sourcePlayer == targetPlayer) return;
 
-		final int sourceFlimFlam = getFlimFlamToolLevel(sourcePlayer);
-		final int targetFlimFlam = getFlimFlamArmorLevel(targetPlayer);
+		final EquipmentSummary sourceEquipment = EquipmentSummary.get(sourcePlayer);
+		final EquipmentSummary targetEquipment = EquipmentSummary.get(targetPlayer);
+
+		final int sourceFlimFlam = sourceEquipment != null? sourceEquipment.getFlimFlamToolLevel() : 0;
+		final int targetFlimFlam = targetEquipment != null? targetEquipment.getFlimFlamArmorLevel() : 0;
 
 		// armor is less effective, since we can have more levels
 		final int flimFlamDiff = targetFlimFlam / 3 - sourceFlimFlam;
@@ -169,42 +166,24 @@ public class FlimFlamEnchantmentsHandler {
 		if (property == null || !canFlimFlam(property)) return;
 		final int luck = property.luck;
 
-		int totalWeight = 0;
-		List<IFlimFlamDescription> selectedEffects = Lists.newArrayList();
-		for (IFlimFlamDescription effectMeta : FlimFlamRegistry.instance.getFlimFlams())
-			if (effectMeta.canApply(luck) && !FlimFlamRegistry.BLACKLIST.isBlacklisted(effectMeta)) {
-				selectedEffects.add(effectMeta);
-				totalWeight += effectMeta.weight();
-			}
-
-		if (selectedEffects.isEmpty()) return;
-
-		Collections.shuffle(selectedEffects);
-
-		while (!selectedEffects.isEmpty()) {
-			final int selectedWeight = RANDOM.nextInt(totalWeight);
-			int currentWeight = 0;
-			Iterator<IFlimFlamDescription> it = selectedEffects.iterator();
-
-			while (it.hasNext()) {
-				final IFlimFlamDescription effectMeta = it.next();
-				currentWeight += effectMeta.weight();
-				if (selectedWeight <= currentWeight) {
-					try {
-						if (effectMeta.action().execute(player)) {
-							property.luck -= effectMeta.cost();
-							Log.debug("Player %s flim-flammed with %s, current luck: %s", player, effectMeta.name(), property.luck);
-							if (!effectMeta.isSilent()) player.addChatMessage(new TextComponentTranslation("openblocks.flim_flammed"));
-							return;
-						}
-					} catch (Throwable t) {
-						Log.warn(t, "Error during flimflam '%s' execution", effectMeta.name());
+		WeightedAliasTable<IFlimFlamDescription> candidates = FlimFlamRegistry.instance.getCandidates(luck);
+
+		while (!candidates.isEmpty()) {
+			final IFlimFlamDescription effectMeta = candidates.sample(RANDOM);
+			if (effectMeta.canApply(luck)) {
+				try {
+					if (effectMeta.action().execute(player)) {
+						property.luck -= effectMeta.cost();
+						Log.debug("Player %s flim-flammed with %s, current luck: %s", player, effectMeta.name(), property.luck);
+						if (!effectMeta.isSilent()) player.addChatMessage(new TextComponentTranslation("openblocks.flim_flammed"));
+						return;
 					}
-					totalWeight -= effectMeta.weight();
-					it.remove();
-					break;
+				} catch (Throwable t) {
+					Log.warn(t, "Error during flimflam '%s' execution", effectMeta.name());
 				}
 			}
+
+			candidates = candidates.without(effectMeta);
 		}
 	}
 
@@ -233,16 +212,4 @@ public class FlimFlamEnchantmentsHandler {
 		double r = RANDOM.nextDouble();
 		return r < probability;
 	}
-
-	private static int getFlimFlamToolLevel(EntityPlayer player) {
-		return EnchantmentHelper.getEnchantmentLevel(Enchantments.flimFlam, player.getHeldItemMainhand());
-	}
-
-	private static int getFlimFlamArmorLevel(EntityPlayer player) {
-		int sum = 0;
-		for (ItemStack stack : player.inventory.armorInventory) {
-			sum += EnchantmentHelper.getEnchantmentLevel(Enchantments.flimFlam, stack);
-		}
-		return sum;
-	}
 }
@@ -4,10 +4,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import openblocks.Config;
@@ -57,7 +59,13 @@ public class FlimFlamRegistry implements IFlimFlamRegistry {
 
 		@SubscribeEvent
 		public void onReconfig(ConfigurationChange.Post evt) {
-			if (evt.check("tomfoolery", "flimFlamBlacklist")) flimFlamList = null;
+			if (evt.check("tomfoolery", "flimFlamBlacklist")) {
+				flimFlamList = null;
+				FlimFlamRegistry.instance.invalidateCandidates();
+			}
+
+			if (evt.check("tomfoolery", "reverseBlacklist") || evt.check("tomfoolery", "safeOnly"))
+				FlimFlamRegistry.instance.invalidateCandidates();
 		}
 
 		public void init() {
@@ -66,6 +74,77 @@ public class FlimFlamRegistry implements IFlimFlamRegistry {
 		}
 	}
 
+	/**
+	 * Luck axis split into bands with same set of eligible (i.e. not blacklisted and in range) flim-flams.
+	 * Descriptions other than {@link FlimFlamDescriptionSimple} have unknown range, so they are included in every band and must be checked after sampling.
+	 */
+	private static class LuckBands {
+		// band i covers [bandStarts[i], bandStarts[i + 1])
+		private final long[] bandStarts;
+
+		private final List<WeightedAliasTable<IFlimFlamDescription>> tables;
+
+		public LuckBands(List<IFlimFlamDescription> flimFlams) {
+			final List<IFlimFlamDescription> allowed = Lists.newArrayList();
+			final SortedSet<Long> boundaries = Sets.newTreeSet();
+			boundaries.add((long)Integer.MIN_VALUE);
+
+			for (IFlimFlamDescription flimFlam : flimFlams) {
+				if (BLACKLIST.isBlacklisted(flimFlam)) continue;
+				allowed.add(flimFlam);
+
+				if (flimFlam instanceof FlimFlamDescriptionSimple) {
+					final FlimFlamDescriptionSimple simple = (FlimFlamDescriptionSimple)flimFlam;
+					boundaries.add((long)simple.getLowerLuck());
+					boundaries.add(simple.getUpperLuck() + 1L);
+				}
+			}
+
+			boundaries.tailSet((long)Integer.MAX_VALUE + 1).clear();
+
+			this.bandStarts = new long[boundaries.size()];
+			this.tables = Lists.newArrayListWithCapacity(boundaries.size());
+
+			int band = 0;
+			for (long start : boundaries) {
+				bandStarts[band++] = start;
+				tables.add(createTable(allowed, (int)start));
+			}
+		}
+
+		private static WeightedAliasTable<IFlimFlamDescription> createTable(List<IFlimFlamDescription> allowed, int luck) {
+			final List<IFlimFlamDescription> candidates = Lists.newArrayList();
+			for (IFlimFlamDescription flimFlam : allowed)
+				if (!(flimFlam instanceof FlimFlamDescriptionSimple) || flimFlam.canApply(luck))
+					candidates.add(flimFlam);
+
+			final int[] weights = new int[candidates.size()];
+			for (int i = 0; i < weights.length; i++)
+				weights[i] = candidates.get(i).weight();
+
+			return WeightedAliasTable.create(candidates, weights);
+		}
+
+		public WeightedAliasTable<IFlimFlamDescription> get(int luck) {
+			final int index = Arrays.binarySearch(bandStarts, luck);
+			return tables.get(index >= 0? index : -index - 2);
+		}
+	}
+
+	private LuckBands luckBands;
+
+	public void invalidateCandidates() {
+		luckBands = null;
+	}
+
+	/**
+	 * @return weighted selector of not blacklisted flim-flams for given luck. Sampled values still need {@link IFlimFlamDescription#canApply(int)} check
+	 */
+	public WeightedAliasTable<IFlimFlamDescription> getCandidates(int luck) {
+		if (luckBands == null) luckBands = new LuckBands(FLIM_FLAMS);
+		return luckBands.get(luck);
+	}
+
 	@Override
 	public FlimFlamDescriptionSimple registerFlimFlam(String name, int cost, int weight, IFlimFlamAction effect) {
 		final FlimFlamDescriptionSimple meta = new FlimFlamDescriptionSimple(name, cost, weight, effect);
@@ -77,6 +156,7 @@ public class FlimFlamRegistry implements IFlimFlamRegistry {
 	public void registerFlimFlam(String name, IFlimFlamDescription meta) {
 		FLIM_FLAMS.add(meta);
 		FLIM_FLAMS_BY_NAME.put(name, meta);
+		invalidateCandidates();
 	}
 
 	@Override
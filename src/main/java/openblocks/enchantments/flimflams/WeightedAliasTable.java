@@ -0,0 +1,132 @@
+package openblocks.enchantments.flimflams;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import gnu.trove.list.array.TIntArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Immutable weighted random selector (Walker's alias method), with constant time sampling.
+ */
+public class WeightedAliasTable<T> {
+
+	private static final WeightedAliasTable<Object> EMPTY = new WeightedAliasTable<Object>(new Object[0], new int[0]);
+
+	private final Object[] values;
+
+	private final int[] weights;
+
+	private final double[] probabilities;
+
+	private final int[] aliases;
+
+	private WeightedAliasTable(Object[] values, int[] weights) {
+		this.values = values;
+		this.weights = weights;
+
+		final int count = values.length;
+		this.probabilities = new double[count];
+		this.aliases = new int[count];
+
+		long totalWeight = 0;
+		for (int weight : weights)
+			totalWeight += weight;
+
+		// Vose's variant: scaled weights are split into two worklists, every small entry is topped up by large one
+		final double[] scaled = new double[count];
+		final TIntArrayList small = new TIntArrayList();
+		final TIntArrayList large = new TIntArrayList();
+		for (int i = 0; i < count; i++) {
+			scaled[i] = (double)weights[i] * count / totalWeight;
+			if (scaled[i] < 1) small.add(i);
+			else large.add(i);
+		}
+
+		while (!small.isEmpty() && !large.isEmpty()) {
+			final int less = small.removeAt(small.size() - 1);
+			final int more = large.get(large.size() - 1);
+
+			probabilities[less] = scaled[less];
+			aliases[less] = more;
+
+			scaled[more] = (scaled[more] + scaled[less]) - 1;
+			if (scaled[more] < 1) {
+				large.removeAt(large.size() - 1);
+				small.add(more);
+			}
+		}
+
+		// leftovers (due to rounding) are full columns
+		for (int i = 0; i < large.size(); i++)
+			probabilities[large.get(i)] = 1;
+
+		for (int i = 0; i < small.size(); i++)
+			probabilities[small.get(i)] = 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> WeightedAliasTable<T> empty() {
+		return (WeightedAliasTable<T>)EMPTY;
+	}
+
+	/**
+	 * Values with non-positive weights are skipped
+	 */
+	public static <T> WeightedAliasTable<T> create(List<T> values, int[] weights) {
+		Preconditions.checkArgument(values.size() == weights.length, "Values and weights size mismatch");
+
+		final List<Object> filteredValues = Lists.newArrayListWithCapacity(values.size());
+		final TIntArrayList filteredWeights = new TIntArrayList(weights.length);
+		for (int i = 0; i < weights.length; i++) {
+			if (weights[i] > 0) {
+				filteredValues.add(values.get(i));
+				filteredWeights.add(weights[i]);
+			}
+		}
+
+		if (filteredValues.isEmpty()) return empty();
+		return new WeightedAliasTable<T>(filteredValues.toArray(), filteredWeights.toArray());
+	}
+
+	public boolean isEmpty() {
+		return values.length == 0;
+	}
+
+	public int size() {
+		return values.length;
+	}
+
+	@SuppressWarnings("unchecked")
+	public T sample(Random random) {
+		Preconditions.checkState(values.length > 0, "Empty table");
+		final int column = random.nextInt(values.length);
+		final int index = random.nextDouble() < probabilities[column]? column : aliases[column];
+		return (T)values[index];
+	}
+
+	/**
+	 * @return new table with same values and weights, except for given value
+	 */
+	public WeightedAliasTable<T> without(T value) {
+		int count = 0;
+		for (Object v : values)
+			if (v != value) count++;
+
+		if (count == values.length) return this;
+		if (count == 0) return empty();
+
+		final Object[] newValues = new Object[count];
+		final int[] newWeights = new int[count];
+		int pos = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != value) {
+				newValues[pos] = values[i];
+				newWeights[pos] = weights[i];
+				pos++;
+			}
+		}
+
+		return new WeightedAliasTable<T>(newValues, newWeights);
+	}
+}
@@ -4,6 +4,7 @@ import com.google.common.collect.Maps;
 import java.util.Map;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.village.Village;
+import openblocks.common.VillageIndex;
 import openblocks.common.tileentity.TileEntityVillageHighlighter;
 import openperipheral.api.adapter.IPeripheralAdapter;
 import openperipheral.api.adapter.method.ReturnType;
@@ -27,18 +28,16 @@ public class AdapterVillageHighlighter implements IPeripheralAdapter {
 	public Map<?, ?> getVillages(TileEntityVillageHighlighter vh) {
 		Map<Integer, Object> map = Maps.newHashMap();
 		int i = 1;
-		for (Village village : vh.getWorld().villageCollectionObj.getVillageList()) {
-			if (village.isBlockPosWithinSqVillageRadius(vh.getPos())) {
-				Map<String, Object> villageMap = Maps.newHashMap();
-				Vec3i d = village.getCenter().subtract(vh.getPos());
-				villageMap.put("x", d.getX());
-				villageMap.put("y", d.getY());
-				villageMap.put("z", d.getZ());
-				villageMap.put("doors", village.getNumVillageDoors());
-				villageMap.put("villagers", village.getNumVillagers());
-				villageMap.put("radius", village.getVillageRadius());
-				map.put(i++, villageMap);
-			}
+		for (Village village : VillageIndex.instance.getVillages(vh.getWorld(), vh.getPos())) {
+			Map<String, Object> villageMap = Maps.newHashMap();
+			Vec3i d = village.getCenter().subtract(vh.getPos());
+			villageMap.put("x", d.getX());
+			villageMap.put("y", d.getY());
+			villageMap.put("z", d.getZ());
+			villageMap.put("doors", village.getNumVillageDoors());
+			villageMap.put("villagers", village.getNumVillagers());
+			villageMap.put("radius", village.getVillageRadius());
+			map.put(i++, villageMap);
 		}
 		return map;
 	}
@@ -46,10 +46,10 @@ public class MagnetControlAdapter implements ITickingTurtle, IWorldProvider, IAt
 			target = new Vec3d(x, y, z);
 		}
 
-		public synchronized Vec3d getTarget(Vec3d pos, EnumFacing side) {
-			double x = pos.xCoord + 0.5;
-			double y = pos.yCoord + 0.5;
-			double z = pos.zCoord + 0.5;
+		public synchronized Vec3d getTarget(BlockPos pos, EnumFacing side) {
+			double x = pos.getX() + 0.5;
+			double y = pos.getY() + 0.5;
+			double z = pos.getZ() + 0.5;
 
 			y += target.xCoord;
 			switch (side) {
@@ -83,7 +83,7 @@ public class MagnetControlAdapter implements ITickingTurtle, IWorldProvider, IAt
 
 		@Override
 		public Vec3d getTarget() {
-			return getTarget(new Vec3d(turtle.getPosition()), turtle.getDirection());
+			return getTarget(turtle.getPosition(), turtle.getDirection());
 		}
 
 		@Override